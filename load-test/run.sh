@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Runs the k6 scenario against the service on platform threads and on virtual threads.
+# Requires a running PostgreSQL (docker compose up postgres), a built jar and k6 on PATH.
+set -euo pipefail
+
+JAR=${JAR:-target/app.jar}
+PORT=${PORT:-8080}
+
+run_mode() {
+    local mode=$1 profiles=$2
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" > "load-test/app-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/health" > /dev/null; do sleep 1; done
+    k6 run -e BASE_URL="http://localhost:$PORT" -e MODE="$mode" load-test/users-load.js
+    kill "$pid"
+    wait "$pid" || true
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time to first successful request for the default startup, the production profile, and the
+# production profile with AOT initializers and a CDS archive.
+# Requires a running PostgreSQL (docker compose up postgres) and a jar built with mvn -Paot package.
+set -euo pipefail
+
+JAR=${JAR:-target/app.jar}
+PORT=${PORT:-8080}
+RUNS=${RUNS:-5}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+WORK=load-test/startup
+RESULTS=load-test/startup-results.txt
+
+[ -f "$JAR" ] || { echo "No jar at $JAR; build it with mvn -Paot package" >&2; exit 1; }
+curl -s -o /dev/null "http://localhost:$PORT/" && { echo "Port $PORT is already in use" >&2; exit 1; }
+
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK"
+# Same training run as the Dockerfile, so a failure here also means the image build would fail
+if ! java -XX:ArchiveClassesAtExit="$WORK/application.jsa" -Dspring.context.exit=onRefresh \
+        -jar "$WORK/app.jar" --spring.profiles.active=production --spring.flyway.enabled=false \
+        > "$WORK/training.log" 2>&1 || [ ! -s "$WORK/application.jsa" ]; then
+    echo "CDS training run failed:" >&2
+    tail -n 40 "$WORK/training.log" >&2
+    exit 1
+fi
+
+# Milliseconds from launch until GET /v1/api/users answers 200
+first_request_ms() {
+    local start pid
+    start=$(date +%s%3N)
+    java "$@" --server.port="$PORT" > "$WORK/app.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/v1/api/users?size=1" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null || (( $(date +%s%3N) - start > TIMEOUT_SECONDS * 1000 )); then
+            echo "Start failed or timed out ($*):" >&2
+            tail -n 40 "$WORK/app.log" >&2
+            kill "$pid" 2> /dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+    done
+    echo $(( $(date +%s%3N) - start ))
+    kill "$pid"
+    wait "$pid" || true
+}
+
+run_mode() {
+    local mode=$1; shift
+    local times=() ms
+    for _ in $(seq "$RUNS"); do
+        ms=$(first_request_ms "$@") || exit 1
+        times+=("$ms")
+    done
+    printf '%-12s %s ms (runs: %s)\n' "$mode" \
+        "$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")" "${times[*]}" | tee -a "$RESULTS"
+}
+
+{
+    echo "# $(date -u +%Y-%m-%dT%H:%M:%SZ) commit $(git rev-parse --short HEAD 2> /dev/null || echo unknown)," \
+        "$(nproc) CPUs, $(java -version 2>&1 | head -n 1)"
+    echo "# CDS archive: $(du -h "$WORK/application.jsa" | cut -f1)"
+} > "$RESULTS"
+run_mode default -jar "$JAR"
+run_mode production -jar "$WORK/app.jar" --spring.profiles.active=production
+run_mode aot-cds -XX:SharedArchiveFile="$WORK/application.jsa" -Dspring.aot.enabled=true \
+    -jar "$WORK/app.jar" --spring.profiles.active=production
@@ -0,0 +1,63 @@
+// k6 load test for the user API.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e MODE=platform load-test/users-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+
+const rejected = new Counter('rejected_503');
+const okLatency = new Trend('ok_latency', true);
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 200, duration: '30s' },
+                { target: 800, duration: '60s' },
+                { target: 800, duration: '60s' },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { mode: MODE },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 100; i++) {
+        const res = http.post(`${BASE_URL}/v1/api/users`, JSON.stringify({
+            username: `load${i}`,
+            email: `load-${MODE}-${Date.now()}-${i}@example.com`,
+            phoneNumber: '+358401234567',
+            role: 'USER',
+        }), { headers: { 'Content-Type': 'application/json' } });
+        if (res.status === 201) {
+            ids.push(res.json('id'));
+        }
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const res = Math.random() < 0.8
+        ? http.get(`${BASE_URL}/v1/api/users/${data.ids[Math.floor(Math.random() * data.ids.length)]}`)
+        : http.get(`${BASE_URL}/v1/api/users?size=20&page=${Math.floor(Math.random() * 5)}`);
+
+    if (res.status === 503) {
+        rejected.add(1);
+    } else if (res.status === 200) {
+        okLatency.add(res.timings.duration);
+    }
+    check(res, { 'ok or shed': (r) => r.status === 200 || r.status === 503 });
+}
+
+export function handleSummary(data) {
+    return { [`load-test/results-${MODE}.json`]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,44 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.UserRole;
+import com.looyt.user.management.service.model.request.CreateUserRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .email("user" + id + "@example.com")
+                .phoneNumber("+35840" + (1000000 + id))
+                .role(id % 10 == 0 ? UserRole.ADMIN : UserRole.USER)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 12, 0).plusMinutes(id))
+                .build();
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    static CreateUserRequest createUserRequest(String phoneNumber) {
+        return CreateUserRequest.builder()
+                .username("EvaBaker")
+                .email("eva.baker@example.com")
+                .phoneNumber(phoneNumber)
+                .role(UserRole.ADMIN)
+                .build();
+    }
+}
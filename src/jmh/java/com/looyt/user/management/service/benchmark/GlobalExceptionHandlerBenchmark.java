@@ -0,0 +1,56 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.controller.UserController;
+import com.looyt.user.management.service.exception.GlobalExceptionHandler;
+import com.looyt.user.management.service.exception.UserNotFoundException;
+import com.looyt.user.management.service.model.request.CreateUserRequest;
+import com.looyt.user.management.service.model.response.ErrorResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private WebRequest request;
+    private UserNotFoundException notFound;
+    private MethodArgumentNotValidException invalidArgument;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/api/users/42"));
+        notFound = new UserNotFoundException(42L);
+
+        CreateUserRequest target = BenchmarkFixtures.createUserRequest("bad");
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target, "createUserRequest");
+        bindingResult.addError(new FieldError("createUserRequest", "phoneNumber", "Phone number must be valid"));
+        bindingResult.addError(new FieldError("createUserRequest", "email", "Email is required"));
+        MethodParameter parameter = new MethodParameter(
+                UserController.class.getMethod("createUser", CreateUserRequest.class), 0);
+        invalidArgument = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> businessException() {
+        return handler.handleBusinessException(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationException() {
+        return handler.handleMethodArgumentNotValidException(invalidArgument, request);
+    }
+}
@@ -0,0 +1,66 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Id allocation rate on one thread and with every core contending, for the time-ordered generator
+ * versus the in-process part of the pooled sequence (a lock around a block of 50). The pooled variant
+ * leaves out the nextval round trip it pays every 50 ids; {@link UserCreateBenchmark} includes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final SnowflakeIdGenerator snowflake = new SnowflakeIdGenerator(1, 1);
+    private final PooledBlock pooled = new PooledBlock();
+
+    @Benchmark
+    @Threads(1)
+    public long snowflakeSingleThreaded() {
+        return snowflake.nextId(0);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long snowflakeContended() {
+        return snowflake.nextId(0);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long pooledSequenceSingleThreaded() {
+        return pooled.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long pooledSequenceContended() {
+        return pooled.next();
+    }
+
+    // Same locking as UserIdGenerator's sequence path, with an AtomicLong standing in for users_seq
+    private static final class PooledBlock {
+        private final AtomicLong sequence = new AtomicLong();
+        private long next = 1;
+        private long last = 0;
+
+        synchronized long next() {
+            if (next > last) {
+                long hi = sequence.addAndGet(ALLOCATION_SIZE);
+                next = hi - ALLOCATION_SIZE + 1;
+                last = hi;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.looyt.user.management.service.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.looyt.user.management.service.logging.SampledLogTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request logging cost of a synchronous appender, the async ring-buffer appender and
+ * a sampled-out request. Output goes to a discarding stream so only the logging path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n";
+
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.addTurboFilter(new SampledLogTurboFilter());
+
+        OutputStreamAppender<ILoggingEvent> sync = discardingAppender("SYNC");
+        syncLogger = context.getLogger("sync");
+        syncLogger.setAdditive(false);
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.addAppender(sync);
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setIncludeCallerData(false);
+        async.addAppender(discardingAppender("ASYNC_TARGET"));
+        async.start();
+        asyncLogger = context.getLogger("async");
+        asyncLogger.setAdditive(false);
+        asyncLogger.setLevel(Level.INFO);
+        asyncLogger.addAppender(async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void synchronousAppender() {
+        logRequest(syncLogger);
+    }
+
+    @Benchmark
+    public void asyncAppender() {
+        logRequest(asyncLogger);
+    }
+
+    @Benchmark
+    public void asyncAppenderSampledOut() {
+        MDC.put(SampledLogTurboFilter.SUPPRESSED_MDC_KEY, "true");
+        try {
+            logRequest(asyncLogger);
+        } finally {
+            MDC.remove(SampledLogTurboFilter.SUPPRESSED_MDC_KEY);
+        }
+    }
+
+    // Mirrors the controller and service log lines of a GET /v1/api/users/{id}
+    private static void logRequest(Logger logger) {
+        logger.info("GET /api/users/{} - Fetching user by id", 42L);
+        logger.info("Fetching user by id : {}", 42L);
+        logger.info("User fetched successfully -id: {}", 42L);
+    }
+
+    private OutputStreamAppender<ILoggingEvent> discardingAppender(String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
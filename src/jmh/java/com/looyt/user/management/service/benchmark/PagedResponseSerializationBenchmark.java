@@ -0,0 +1,68 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.looyt.user.management.service.mapper.UserMapperImpl;
+import com.looyt.user.management.service.mapper.UserResponseSerializer;
+import com.looyt.user.management.service.model.response.PagedResponse;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of users through Jackson's reflective bean serializer versus {@code UserResponseSerializer}
+ * with pre-encoded field names. Run with {@code -Djmh.args="PagedResponseSerialization -prof gc"}:
+ * {@code gc.alloc.rate.norm} is the heap allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper preEncodedMapper;
+    private PagedResponse<UserResponse> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Matches the Spring Boot defaults: java.time support, ISO dates instead of timestamps
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        preEncodedMapper = objectMapper.copy()
+                .registerModule(new SimpleModule().addSerializer(new UserResponseSerializer()));
+        page = PagedResponse.<UserResponse>builder()
+                .content(new UserMapperImpl().toResponseList(BenchmarkFixtures.users(pageSize)))
+                .pageNumber(0)
+                .pageSize(pageSize)
+                .totalElements(1_000_000L)
+                .totalPages(1_000_000 / pageSize)
+                .last(false)
+                .build();
+        if (!Arrays.equals(serialize(), serializePreEncoded())) {
+            throw new IllegalStateException("Serializers disagree on the JSON for the same page");
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePreEncoded() throws JsonProcessingException {
+        return preEncodedMapper.writeValueAsBytes(page);
+    }
+}
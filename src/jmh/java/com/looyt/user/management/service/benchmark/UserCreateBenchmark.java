@@ -0,0 +1,109 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.UserManagementServiceApplication;
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.UserRole;
+import com.looyt.user.management.service.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates batches of users in one transaction against PostgreSQL in Testcontainers (Docker required).
+ * {@code identity} is what {@code GenerationType.IDENTITY} costs: one {@code INSERT ... RETURNING id}
+ * round trip per user into a copy of the table with an identity column. {@code sequence} and
+ * {@code snowflake} persist entities through {@code saveAll}, which Hibernate batches because the ids
+ * are known before the insert. Scores are batches per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserCreateBenchmark {
+
+    private static final String INSERT_RETURNING_ID = """
+            INSERT INTO users_identity (username, email, role, phone_number, created_at, updated_at)
+            VALUES (?, ?, ?, ?, now(), now())
+            RETURNING id
+            """;
+
+    @Param({"identity", "sequence", "snowflake"})
+    private String strategy;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transaction;
+    private long created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(UserManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "app.id.generator=" + (strategy.equals("snowflake") ? "snowflake" : "sequence"),
+                        "app.events.publisher.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("CREATE TABLE users_identity (LIKE users INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING INDEXES)");
+        jdbc.execute("ALTER TABLE users_identity ALTER COLUMN id DROP DEFAULT");
+        jdbc.execute("ALTER TABLE users_identity ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+
+        userRepository = context.getBean(UserRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public int createBatch() {
+        List<User> users = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long n = ++created;
+            users.add(User.builder()
+                    .username("user" + n)
+                    .email("user" + n + "@example.com")
+                    .role(UserRole.USER)
+                    .phoneNumber("+35840" + n)
+                    .build());
+        }
+        return transaction.execute(status -> {
+            if (strategy.equals("identity")) {
+                for (User user : users) {
+                    jdbc.queryForObject(INSERT_RETURNING_ID, Long.class,
+                            user.getUsername(), user.getEmail(), user.getRole().name(), user.getPhoneNumber());
+                }
+                return users.size();
+            }
+            return userRepository.saveAll(users).size();
+        });
+    }
+}
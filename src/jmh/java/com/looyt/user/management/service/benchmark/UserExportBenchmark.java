@@ -0,0 +1,148 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.looyt.user.management.service.UserManagementServiceApplication;
+import com.looyt.user.management.service.mapper.UserJsonWriter;
+import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * NDJSON export of every user: the {@code UserResponse} projection stream through Jackson's
+ * {@code SequenceWriter} (the previous export path) versus JDBC rows written by {@code UserJsonWriter},
+ * against PostgreSQL in Testcontainers (Docker required). Output goes to a discarding stream.
+ * Run with {@code -Djmh.args="UserExport -prof gc"}: {@code gc.alloc.rate.norm} is the heap allocated
+ * per export, and divided by {@code rows} per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserExportBenchmark {
+
+    private static final SerializedString NEWLINE = new SerializedString("\n");
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(UserManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "app.events.publisher.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("""
+                INSERT INTO users (username, email, role, phone_number, created_at, updated_at)
+                SELECT 'user' || g, 'user' || g || '@example.com',
+                       CASE WHEN g % 10 = 0 THEN 'ADMIN' ELSE 'USER' END,
+                       '+35840' || g, TIMESTAMP '2024-01-01' + g * INTERVAL '1.5 second',
+                       TIMESTAMP '2024-06-01' + g * INTERVAL '1 millisecond'
+                FROM generate_series(1, ?) g
+                """, rows);
+        jdbc.execute("ANALYZE users");
+
+        userRepository = context.getBean(UserRepository.class);
+        // Spring Boot defaults without the UserResponse serializer, as the previous path serialized
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        ByteArrayOutputStream projected = new ByteArrayOutputStream();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        exportProjection(projected);
+        exportRows(written);
+        if (!Arrays.equals(projected.toByteArray(), written.toByteArray())) {
+            throw new IllegalStateException("Export paths disagree on the NDJSON for the same rows");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long projection() throws IOException {
+        return exportProjection(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long jdbcRows() throws IOException {
+        return exportRows(OutputStream.nullOutputStream());
+    }
+
+    private long exportProjection(OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            return readOnly.execute(status -> {
+                long count = 0;
+                try (Stream<UserResponse> users = userRepository.streamAllResponsesOrderById()) {
+                    for (UserResponse user : (Iterable<UserResponse>) users::iterator) {
+                        writer.write(user);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        }
+    }
+
+    private long exportRows(OutputStream out) throws IOException {
+        UserJsonWriter userJsonWriter = new UserJsonWriter();
+        try (JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(NEWLINE);
+            return readOnly.execute(status -> userRepository.forEachResponseRow((row, rowNumber) -> {
+                try {
+                    userJsonWriter.writeRow(generator, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+    }
+}
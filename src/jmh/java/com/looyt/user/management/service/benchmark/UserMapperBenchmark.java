@@ -0,0 +1,42 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.mapper.UserMapper;
+import com.looyt.user.management.service.mapper.UserMapperImpl;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private User user;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user(1);
+        users = BenchmarkFixtures.users(pageSize);
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return userMapper.toResponse(user);
+    }
+
+    @Benchmark
+    public List<UserResponse> toResponseList() {
+        return userMapper.toResponseList(users);
+    }
+}
@@ -0,0 +1,104 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.UserManagementServiceApplication;
+import com.looyt.user.management.service.mapper.UserMapper;
+import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.repository.UserRepository;
+import com.looyt.user.management.service.repository.UserSpecifications;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads one page of users as managed entities (read-write and read-only transactions) versus the
+ * {@code UserResponse} projection, against PostgreSQL in Testcontainers (Docker required).
+ * Run with {@code -Djmh.args="UserReadPath -prof gc"} and compare {@code gc.alloc.rate.norm} for heap per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(UserManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "app.events.publisher.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("""
+                INSERT INTO users (username, email, role, phone_number, created_at)
+                SELECT 'user' || g, 'user' || g || '@example.com',
+                       CASE WHEN g % 10 = 0 THEN 'ADMIN' ELSE 'USER' END,
+                       '+35840' || g, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute'
+                FROM generate_series(1, 5000) g
+                """);
+        jdbc.execute("ANALYZE users");
+
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<UserResponse> entityReadWrite() {
+        // Snapshots every row and dirty-checks it again at commit
+        return readWrite.execute(status -> userMapper.toResponseList(
+                userRepository.findNextKeysetPage(UserSpecifications.unrestricted(), BY_ID, pageSize)));
+    }
+
+    @Benchmark
+    public List<UserResponse> entityReadOnly() {
+        return readOnly.execute(status -> userMapper.toResponseList(
+                userRepository.findNextKeysetPage(UserSpecifications.unrestricted(), BY_ID, pageSize)));
+    }
+
+    @Benchmark
+    public List<UserResponse> projection() {
+        return readOnly.execute(status ->
+                userRepository.findResponses(UserSpecifications.unrestricted(), BY_ID, pageSize));
+    }
+}
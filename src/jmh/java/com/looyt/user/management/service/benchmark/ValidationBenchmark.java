@@ -0,0 +1,57 @@
+package com.looyt.user.management.service.benchmark;
+
+import com.looyt.user.management.service.model.request.CreateUserRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    // Same expression as the @Pattern on CreateUserRequest.phoneNumber
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?[1-9]\\d{1,14}$");
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CreateUserRequest validRequest;
+    private CreateUserRequest invalidPhoneRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = BenchmarkFixtures.createUserRequest("+358401234567");
+        invalidPhoneRequest = BenchmarkFixtures.createUserRequest("0040-123-abc");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> validateInvalidPhone() {
+        return validator.validate(invalidPhoneRequest);
+    }
+
+    @Benchmark
+    public boolean phonePatternOnly() {
+        return PHONE_PATTERN.matcher(validRequest.getPhoneNumber()).matches();
+    }
+}
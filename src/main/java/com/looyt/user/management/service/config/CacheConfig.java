@@ -0,0 +1,36 @@
+package com.looyt.user.management.service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Cache advice runs outside the transaction advice so a hit never opens a transaction
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.users.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.users.ttl:5m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_BY_ID, USERS_BY_EMAIL);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // Evictions issued inside a transaction are applied only after it commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
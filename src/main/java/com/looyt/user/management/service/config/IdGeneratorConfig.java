@@ -0,0 +1,44 @@
+package com.looyt.user.management.service.config;
+
+import com.looyt.user.management.service.id.IdGenerators;
+import com.looyt.user.management.service.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.id.generator", havingValue = "snowflake")
+    public static class SnowflakeIdConfig implements DisposableBean {
+
+        @Bean
+        public SnowflakeIdGenerator snowflakeIdGenerator(IdGeneratorProperties properties,
+                                                         ShardingProperties shardingProperties) {
+            SnowflakeIdGenerator generator =
+                    new SnowflakeIdGenerator(properties.nodeId(), shardingProperties.shardCount());
+            IdGenerators.install(generator);
+            return generator;
+        }
+
+        @Override
+        public void destroy() {
+            IdGenerators.uninstall();
+        }
+    }
+
+    // Installed before Hibernate can generate its first id
+    @Configuration
+    @ConditionalOnProperty(name = "app.id.generator", havingValue = "snowflake")
+    public static class SnowflakeIdEntityManagerDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        public SnowflakeIdEntityManagerDependency() {
+            super("snowflakeIdGenerator");
+        }
+    }
+}
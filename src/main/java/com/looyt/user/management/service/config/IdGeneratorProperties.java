@@ -0,0 +1,18 @@
+package com.looyt.user.management.service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code generator} is {@code sequence} (database sequence, the default) or {@code snowflake}.
+ * {@code nodeId} must differ between instances writing to the same database.
+ */
+@ConfigurationProperties(prefix = "app.id")
+public record IdGeneratorProperties(
+        String generator,
+        Integer nodeId) {
+
+    public IdGeneratorProperties {
+        generator = generator == null ? "sequence" : generator;
+        nodeId = nodeId == null ? 0 : nodeId;
+    }
+}
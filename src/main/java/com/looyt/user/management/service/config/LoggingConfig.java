@@ -0,0 +1,23 @@
+package com.looyt.user.management.service.config;
+
+import com.looyt.user.management.service.logging.LogSamplingInterceptor;
+import com.looyt.user.management.service.logging.LogSamplingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(LogSamplingProperties.class)
+public class LoggingConfig implements WebMvcConfigurer {
+
+    private final LogSamplingProperties logSamplingProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LogSamplingInterceptor(logSamplingProperties))
+                .addPathPatterns("/v1/api/**");
+    }
+}
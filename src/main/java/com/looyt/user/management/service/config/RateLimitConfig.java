@@ -0,0 +1,35 @@
+package com.looyt.user.management.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.user.management.service.ratelimit.ClientRateLimiter;
+import com.looyt.user.management.service.ratelimit.RateLimitFilter;
+import com.looyt.user.management.service.ratelimit.RateLimitProperties;
+import com.looyt.user.management.service.web.ClientIdentity;
+import com.looyt.user.management.service.web.DatabaseAdmissionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    // Ahead of admission, so rejected calls never take a database permit
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimitProperties rateLimitProperties,
+            @Value("${" + ClientIdentity.TRUST_HEADER_PROPERTY + ":false}") boolean trustClientIdHeader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(
+                new ClientRateLimiter(rateLimitProperties), rateLimitProperties, trustClientIdHeader,
+                objectMapper, meterRegistry));
+        registration.setOrder(DatabaseAdmissionFilter.ORDER - 1);
+        return registration;
+    }
+}
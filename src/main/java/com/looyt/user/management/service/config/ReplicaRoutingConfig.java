@@ -0,0 +1,86 @@
+package com.looyt.user.management.service.config;
+
+import com.looyt.user.management.service.datasource.ReplicaRoutingDataSource;
+import com.looyt.user.management.service.web.ClientIdentity;
+import com.looyt.user.management.service.web.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaRoutingProperties.Replica> configured = properties.replicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username());
+            dataSource.setPassword(replica.password());
+            dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put("replica-" + i, dataSource);
+        }
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.maxLag());
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            ReplicaRoutingProperties properties,
+            @Value("${" + ClientIdentity.TRUST_HEADER_PROPERTY + ":false}") boolean trustClientIdHeader) {
+        return new ReadYourWritesFilter(properties.readYourWritesWindow(), trustClientIdHeader);
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaHealthCheck(replicaRoutingDataSource);
+    }
+
+    public static class ReplicaHealthCheck {
+        private final ReplicaRoutingDataSource dataSource;
+
+        ReplicaHealthCheck(ReplicaRoutingDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval:5s}")
+        public void check() {
+            dataSource.checkReplicas();
+        }
+    }
+}
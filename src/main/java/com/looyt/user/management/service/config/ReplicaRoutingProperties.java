@@ -0,0 +1,25 @@
+package com.looyt.user.management.service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public record ReplicaRoutingProperties(
+        boolean enabled,
+        List<Replica> replicas,
+        Integer maximumPoolSize,
+        Duration maxLag,
+        Duration readYourWritesWindow) {
+
+    public ReplicaRoutingProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+        maximumPoolSize = maximumPoolSize == null ? 5 : maximumPoolSize;
+        maxLag = maxLag == null ? Duration.ofSeconds(5) : maxLag;
+        readYourWritesWindow = readYourWritesWindow == null ? Duration.ofSeconds(5) : readYourWritesWindow;
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.looyt.user.management.service.config;
+
+import com.looyt.user.management.service.datasource.ShardRoutingDataSource;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@Slf4j
+public class ShardingConfig {
+
+    @Bean
+    public UserShards userShards(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        return new UserShards(properties.shardCount(), transactionManager);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+    public static class ShardDataSourceConfig {
+
+        private static final String EMAIL_DIRECTORY_BACKFILL = """
+                INSERT INTO user_email_directory (email, shard, user_id, reserved_at)
+                SELECT email, 0, id, now() FROM users WHERE deleted_at IS NULL
+                ON CONFLICT (email) DO NOTHING
+                """;
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+            if (environment.getProperty("app.datasource.routing.enabled", Boolean.class, false)) {
+                throw new IllegalStateException("Sharding and read replica routing cannot be enabled together");
+            }
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ShardingProperties properties) {
+            List<DataSource> shards = new ArrayList<>();
+            List<ShardingProperties.Shard> configured = properties.shards();
+            for (int i = 0; i < configured.size(); i++) {
+                ShardingProperties.Shard shard = configured.get(i);
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setPoolName("shard-" + (i + 1));
+                dataSource.setJdbcUrl(shard.url());
+                dataSource.setUsername(shard.username());
+                dataSource.setPassword(shard.password());
+                dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+                dataSource.addDataSourceProperty("reWriteBatchedInserts", true);
+                shards.add(dataSource);
+            }
+            ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(primaryDataSource, shards);
+            routingDataSource.afterPropertiesSet();
+            return routingDataSource;
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        // Every shard carries the full schema, so the same migrations run against each of them
+        @Bean
+        public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource shardRoutingDataSource) {
+            return flyway -> {
+                for (int shard = 0; shard < shardRoutingDataSource.shardCount(); shard++) {
+                    Flyway.configure()
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(shardRoutingDataSource.getShard(shard))
+                            .load()
+                            .migrate();
+                }
+                backfillEmailDirectory(shardRoutingDataSource.getShard(0));
+            };
+        }
+
+        /**
+         * Unsharded, nothing writes to the directory, so users created before sharding was turned on
+         * have no entry. They all live on shard 0; without an entry their emails would look free and
+         * could be registered again on another shard. Idempotent, so it runs on every sharded start.
+         */
+        private static void backfillEmailDirectory(DataSource shardZero) {
+            int added = new JdbcTemplate(shardZero).update(EMAIL_DIRECTORY_BACKFILL);
+            if (added > 0) {
+                log.info("Added {} users from before sharding to the email directory", added);
+            }
+        }
+    }
+}
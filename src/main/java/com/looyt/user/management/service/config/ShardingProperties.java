@@ -0,0 +1,30 @@
+package com.looyt.user.management.service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Shard 0 is always {@code spring.datasource}; {@code shards} lists the additional databases.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public record ShardingProperties(
+        boolean enabled,
+        List<Shard> shards,
+        Integer maximumPoolSize,
+        Duration reservationGrace) {
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+        maximumPoolSize = maximumPoolSize == null ? 5 : maximumPoolSize;
+        reservationGrace = reservationGrace == null ? Duration.ofMinutes(1) : reservationGrace;
+    }
+
+    public int shardCount() {
+        return enabled ? shards.size() + 1 : 1;
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
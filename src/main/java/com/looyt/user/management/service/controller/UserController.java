@@ -1,10 +1,24 @@
 package com.looyt.user.management.service.controller;
 
+import com.looyt.user.management.service.exception.PreconditionFailedException;
+import com.looyt.user.management.service.exception.ValidationException;
+import com.looyt.user.management.service.model.CountMode;
+import com.looyt.user.management.service.model.ExportFormat;
+import com.looyt.user.management.service.model.PaginationMode;
+import com.looyt.user.management.service.model.SearchMatch;
+import com.looyt.user.management.service.model.UserRole;
+import com.looyt.user.management.service.service.UserReadCoalescer;
 import com.looyt.user.management.service.service.UserService;
+import com.looyt.user.management.service.web.DatabaseAdmissionFilter;
 import com.looyt.user.management.service.model.request.CreateUserRequest;
 import com.looyt.user.management.service.model.request.UpdateUserRequest;
+import com.looyt.user.management.service.model.request.UserSearchCriteria;
+import com.looyt.user.management.service.model.response.BatchResponse;
+import com.looyt.user.management.service.model.response.EmailAvailabilityResponse;
 import com.looyt.user.management.service.model.response.PagedResponse;
+import com.looyt.user.management.service.model.response.UserChangeResponse;
 import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.repository.UserVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,13 +29,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/api/users")
@@ -31,6 +57,10 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class UserController {
     private final UserService userService;
+    private final UserReadCoalescer userReadCoalescer;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
 
     @Operation(
             summary = "Create a new user",
@@ -76,20 +106,110 @@ public class UserController {
                     description = "User found successfully",
                     content = @Content(schema = @Schema(implementation = UserResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "User has not changed since the version given in If-None-Match/If-Modified-Since"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "User not found with the given ID"
             )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUser(
+    public CompletableFuture<ResponseEntity<UserResponse>> getUser(
             @Parameter(description = "ID of the user to retrieve", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         log.info("GET /api/users/{} - Fetching user by id", id);
-        UserResponse user = userService.getUserById(id);
+
+        // Conditional requests are answered from the version column alone, without loading or mapping the row
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            UserVersion version = userService.getUserVersion(id);
+            if (webRequest.checkNotModified(eTag(version.version()), epochMillis(version.lastModified()))) {
+                log.info("GET /api/users/{} - Not modified", id);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+            }
+        }
+
+        return coalesced(userReadCoalescer.getUserById(id), webRequest).thenApply(user -> {
+            LocalDateTime lastModified = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+            return ResponseEntity.ok()
+                    .eTag(eTag(user.getVersion()))
+                    .lastModified(epochMillis(lastModified))
+                    .body(user);
+        });
+    }
+
+    @Operation(
+            summary = "Get user by email",
+            description = "Retrieves a specific user by their email address"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "User found successfully",
+                    content = @Content(schema = @Schema(implementation = UserResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found with the given email"
+            )
+    })
+    @GetMapping("/by-email")
+    public ResponseEntity<UserResponse> getUserByEmail(
+            @Parameter(description = "Email of the user to retrieve", required = true, example = "eva.baker@example.com")
+            @RequestParam String email) {
+        log.info("GET /api/users/by-email - Fetching user by email");
+        UserResponse user = userService.getUserByEmail(email);
         return ResponseEntity.ok(user);
     }
 
+    @Operation(
+            summary = "Check email availability",
+            description = "Reports whether an email is free to register. Most free emails are answered from an " +
+                    "in-memory filter without a database query. The answer is advisory; creating the user still " +
+                    "rejects a duplicate."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Availability checked",
+                    content = @Content(schema = @Schema(implementation = EmailAvailabilityResponse.class))
+            )
+    })
+    @GetMapping("/email-availability")
+    public ResponseEntity<EmailAvailabilityResponse> checkEmailAvailability(
+            @Parameter(description = "Email to check", required = true, example = "eva.baker@example.com")
+            @RequestParam String email) {
+        log.info("GET /api/users/email-availability - Checking email availability");
+        return ResponseEntity.ok(userService.checkEmailAvailability(email));
+    }
+
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Looks up to app.batch.max-lookup-size users in one request with a single query. Results " +
+                    "follow the order of the request; ids that do not exist are reported with status 404."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lookup is empty or exceeds the maximum size"
+            )
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<BatchResponse> getUsersByIds(@RequestBody List<Long> ids) {
+        log.info("POST /api/users/lookup - Fetching {} users by id", ids.size());
+        BatchResponse response = userService.getUsersByIds(ids);
+        log.info("POST /api/users/lookup - Found {} users, {} failed", response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Get all users with pagination",
             description = "Retrieves a paginated list of all users with optional sorting"
@@ -106,35 +226,189 @@ public class UserController {
             )
     })
     @GetMapping
-    public ResponseEntity<PagedResponse<UserResponse>> getAllUsers(
+    public CompletableFuture<ResponseEntity<PagedResponse<UserResponse>>> getAllUsers(
             @Parameter(description = "Page number (0-indexed)", example = "0")
             @RequestParam(defaultValue = "0") int page,
 
-            @Parameter(description = "Number of items per page", example = "10")
+            @Parameter(description = "Number of items per page (at most app.pagination.max-page-size)", example = "10")
             @RequestParam(defaultValue = "10") int size,
 
             @Parameter(description = "Field to sort by", example = "id")
             @RequestParam(defaultValue = "id") String sortBy,
 
             @Parameter(description = "Sort direction (asc or desc)", example = "asc")
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+
+            @Parameter(description = "Pagination mode: OFFSET uses page numbers, CURSOR seeks from nextCursor " +
+                    "and keeps latency flat for deep pages", example = "OFFSET")
+            @RequestParam(defaultValue = "OFFSET") PaginationMode mode,
+
+            @Parameter(description = "Opaque nextCursor from the previous response (CURSOR mode, omit for the first page)")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Whether to count total elements (CURSOR mode only)", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+
+            @Parameter(description = "Total count in OFFSET mode: EXACT runs count(*), ESTIMATED uses table " +
+                    "statistics, OMITTED only reports whether another page exists", example = "EXACT")
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            WebRequest webRequest) {
         log.info("GET /api/users - Fetching users with pagination " +
-                        "page: {}, size: {}, sortBy: {}, sortDirection: {}]",
-                page, size, sortBy, sortDirection);
+                        "mode: {}, page: {}, size: {}, sortBy: {}, sortDirection: {}, count: {}]",
+                mode, page, size, sortBy, sortDirection, count);
 
+        checkPageSize(size);
         Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ?
                 Sort.Direction.DESC : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        CompletableFuture<PagedResponse<UserResponse>> responses;
+        if (mode == PaginationMode.CURSOR) {
+            responses = CompletableFuture.completedFuture(
+                    userService.getUsersByCursor(cursor, size, sortBy, direction, includeTotal));
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+            responses = coalesced(userReadCoalescer.getAllUsers(pageable, count), webRequest);
+        }
+
+        return responses.thenApply(users -> {
+            log.info("GET /api/users - Returning {} users on page {} of {} (total elements: {})",
+                    users.getContent().size(), users.getPageNumber(),
+                    users.getTotalPages(), users.getTotalElements());
+            return ResponseEntity.ok(users);
+        });
+    }
+
+    @Operation(
+            summary = "Search users",
+            description = "Filters users by username/email substring or prefix, role and creation time range. " +
+                    "Results are paged with a cursor; pass nextCursor from the previous response to continue."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = PagedResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid filter, cursor or sorting parameters"
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<PagedResponse<UserResponse>> searchUsers(
+            @Parameter(description = "Username term (at least 3 characters)", example = "eva")
+            @RequestParam(required = false) String username,
+
+            @Parameter(description = "Email term (at least 3 characters)", example = "example.com")
+            @RequestParam(required = false) String email,
+
+            @Parameter(description = "How username/email terms match (CONTAINS or PREFIX)", example = "CONTAINS")
+            @RequestParam(defaultValue = "CONTAINS") SearchMatch match,
+
+            @Parameter(description = "Role to filter by", example = "ADMIN")
+            @RequestParam(required = false) UserRole role,
+
+            @Parameter(description = "Created at or after (ISO date-time)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+
+            @Parameter(description = "Created before (ISO date-time)", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+
+            @Parameter(description = "Number of items per page (at most app.pagination.max-page-size)", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+
+            @Parameter(description = "Field to sort by (id, username, email, createdAt or updatedAt)", example = "id")
+            @RequestParam(defaultValue = "id") String sortBy,
+
+            @Parameter(description = "Sort direction (asc or desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDirection,
+
+            @Parameter(description = "Opaque nextCursor from the previous response (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Whether to count total matches", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/users/search - Searching users with role: {}, match: {}, size: {}", role, match, size);
+        checkPageSize(size);
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ?
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .username(username)
+                .email(email)
+                .match(match)
+                .role(role)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
 
-        PagedResponse<UserResponse> responses = userService.getAllUsers(pageable);
+        PagedResponse<UserResponse> responses = userService.searchUsers(criteria, cursor, size, sortBy, direction,
+                includeTotal);
 
-        log.info("GET /api/users - Returning {} users on page {} of {} (total elements: {})",
-                responses.getContent().size(), responses.getPageNumber(),
-                responses.getTotalPages(), responses.getTotalElements());
+        log.info("GET /api/users/search - Returning {} users", responses.getContent().size());
         return ResponseEntity.ok(responses);
     }
 
+    @Operation(
+            summary = "Get users changed since a watermark",
+            description = "Incremental sync feed: users created or updated after 'since' as UPSERT entries and " +
+                    "deleted users as DELETE tombstones, ordered by change time. Every response carries a " +
+                    "nextCursor; pass it as 'cursor' to continue and keep the last one as the mirror's watermark. " +
+                    "Tombstones are retained for 30 days by default; mirrors further behind should re-seed from " +
+                    "the export endpoint."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = PagedResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or page size"
+            )
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<PagedResponse<UserChangeResponse>> getChanges(
+            @Parameter(description = "Return changes strictly after this time (ISO date-time); omit for a full sync",
+                    example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+
+            @Parameter(description = "Opaque nextCursor from the previous response; takes precedence over 'since'")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Number of changes per page", example = "100")
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("GET /api/users/changes - Fetching changes since: {}, size: {}", since, size);
+        PagedResponse<UserChangeResponse> changes = userService.getChangesSince(since, cursor, size);
+        log.info("GET /api/users/changes - Returning {} changes", changes.getContent().size());
+        return ResponseEntity.ok(changes);
+    }
+
+    @Operation(
+            summary = "Export all users",
+            description = "Streams every user as NDJSON or CSV. Rows are read through a forward-only database cursor " +
+                    "and written as they arrive, so memory use does not grow with the table size."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export stream started"
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Export format (NDJSON or CSV)", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        log.info("GET /api/users/export - Exporting users as {}", format);
+        StreamingResponseBody body = outputStream -> userService.exportUsers(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @Operation(
             summary = "Update an existing user",
             description = "Updates an existing user's information. User ID must be provided in the request body."
@@ -152,6 +426,14 @@ public class UserController {
             @ApiResponse(
                     responseCode = "404",
                     description = "User not found with the given ID"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "User was modified concurrently"
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "User version does not match If-Match"
             )
     })
     @PutMapping
@@ -161,16 +443,22 @@ public class UserController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = UpdateUserRequest.class))
             )
-            @Valid @RequestBody UpdateUserRequest request) {
+            @Valid @RequestBody UpdateUserRequest request,
+
+            @Parameter(description = "ETag of the version being updated, for optimistic concurrency", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /api/users - Updating user with id: {}", request.getId());
-        UserResponse updatedUser = userService.updateUser(request);
+        UserResponse updatedUser = userService.updateUser(request, parseIfMatch(ifMatch, request.getId()));
         log.info("PUT /api/users - User updated successfully with id: {}", updatedUser.getId());
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedUser.getVersion()))
+                .body(updatedUser);
     }
 
     @Operation(
             summary = "Delete a user",
-            description = "Permanently deletes a user from the system by their ID"
+            description = "Deletes a user by their ID. The row is marked deleted immediately and purged " +
+                    "in the background after the retention window."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -191,4 +479,114 @@ public class UserController {
         log.info("DELETE /api/users/{} - User deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Creates up to app.batch.max-size users in one request. Duplicate emails are checked with a " +
+                    "single query and rows are written with batched inserts. Each item is reported separately."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is empty or exceeds the maximum size"
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> createUsers(@RequestBody List<CreateUserRequest> requests) {
+        log.info("POST /api/users/batch - Creating {} users", requests.size());
+        BatchResponse response = userService.createUsers(requests);
+        log.info("POST /api/users/batch - Created {} users, {} failed", response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Update users in bulk",
+            description = "Updates up to app.batch.max-size users in one request. Each item is reported separately."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is empty or exceeds the maximum size"
+            )
+    })
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResponse> updateUsers(@RequestBody List<UpdateUserRequest> requests) {
+        log.info("PUT /api/users/batch - Updating {} users", requests.size());
+        BatchResponse response = userService.updateUsers(requests);
+        log.info("PUT /api/users/batch - Updated {} users, {} failed", response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Delete users in bulk",
+            description = "Soft-deletes up to app.batch.max-size users by ID with a single statement. " +
+                    "Unknown IDs are reported as not found."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Batch is empty or exceeds the maximum size"
+            )
+    })
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponse> deleteUsers(@RequestBody List<Long> ids) {
+        log.info("DELETE /api/users/batch - Deleting {} users", ids.size());
+        BatchResponse response = userService.deleteUsers(ids);
+        log.info("DELETE /api/users/batch - Deleted {} users, {} failed", response.getSucceeded(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    // Large pages hold a pooled connection for the whole query, so they are capped per request
+    private void checkPageSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new ValidationException("Page size must be between 1 and " + maxPageSize);
+        }
+    }
+
+    // A request still waiting on another request's query holds no connection, so it gives back its admission permit
+    private static <T> CompletableFuture<T> coalesced(CompletableFuture<T> result, WebRequest webRequest) {
+        if (!result.isDone()) {
+            webRequest.setAttribute(DatabaseAdmissionFilter.WAITING_WITHOUT_CONNECTION, Boolean.TRUE,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return result;
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Long parseIfMatch(String ifMatch, Long userId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(userId);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.looyt.user.management.service.controller;
+
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import com.looyt.user.management.service.service.UserEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/api/users/events")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "User Events", description = "Change events for user create, update and delete")
+public class UserEventController {
+    private final UserEventService userEventService;
+
+    @Operation(
+            summary = "Get user change events",
+            description = "Returns published change events with an event id greater than 'since', in order. " +
+                    "Use the last event id as the next 'since' to catch up without polling the user list."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Events retrieved successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid limit"
+            )
+    })
+    @GetMapping
+    public ResponseEntity<List<UserEventResponse>> getEvents(
+            @Parameter(description = "Return events after this event id", example = "0")
+            @RequestParam(defaultValue = "0") long since,
+
+            @Parameter(description = "Maximum number of events to return", example = "100")
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("GET /api/users/events - Fetching events since: {}, limit: {}", since, limit);
+        return ResponseEntity.ok(userEventService.getEventsSince(since, limit));
+    }
+
+    @Operation(
+            summary = "Stream user change events",
+            description = "Server-sent events stream of user changes. Pass 'since' or Last-Event-ID to replay " +
+                    "missed events first."
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Replay events after this event id before streaming", example = "0")
+            @RequestParam(required = false) Long since,
+
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("GET /api/users/events/stream - Subscribing since: {}", since != null ? since : lastEventId);
+        return userEventService.subscribe(since != null ? since : lastEventId);
+    }
+}
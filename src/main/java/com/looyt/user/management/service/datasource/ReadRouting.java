@@ -0,0 +1,41 @@
+package com.looyt.user.management.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound override that pins reads to the primary, used for read-your-writes and for reads
+ * whose result outlives the request (e.g. cache population).
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+}
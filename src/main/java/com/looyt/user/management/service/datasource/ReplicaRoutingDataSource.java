@@ -0,0 +1,103 @@
+package com.looyt.user.management.service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the lookup happens after the transaction's
+ * read-only flag is bound.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    // Replay time alone keeps growing while the primary is idle, so a replica that has applied
+    // everything it received while still streaming counts as caught up. With the WAL receiver
+    // disconnected nothing new arrives, so it is judged by replay time instead. NULL for a server
+    // that is not a standby. The receiver status is only visible with pg_read_all_stats.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                     AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0
+                ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            END
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.healthyReplicas = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPrimaryForced()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lag = resultSet.getDouble(1);
+                if (resultSet.wasNull()) {
+                    log.warn("Replica {} is not a standby or has not replayed anything, routing reads away from it",
+                            name);
+                } else if (lag <= maxLagSeconds) {
+                    healthy.add(name);
+                } else {
+                    log.warn("Replica {} is {}s behind the primary, routing reads away from it", name, lag);
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} failed its health check: {}", name, e.getMessage());
+            }
+        });
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy read replicas changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.looyt.user.management.service.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard for the next connection taken from {@link ShardRoutingDataSource}. Unbound
+ * threads use shard 0, which is also the only shard when sharding is disabled.
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
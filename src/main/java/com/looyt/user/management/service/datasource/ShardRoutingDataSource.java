@@ -0,0 +1,57 @@
+package com.looyt.user.management.service.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard bound through {@link ShardRouting}. Like the replica router it
+ * must sit behind a LazyConnectionDataSourceProxy, so the shard is chosen at the first statement of a
+ * transaction rather than when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(DataSource primary, List<DataSource> additionalShards) {
+        this.shards = new ArrayList<>(additionalShards.size() + 1);
+        this.shards.add(primary);
+        this.shards.addAll(additionalShards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // An unknown shard is a routing bug, never a reason to fall back to shard 0
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouting.current();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    public void close() throws Exception {
+        // Shard 0 is the Spring-managed primary pool
+        for (DataSource dataSource : shards.subList(1, shards.size())) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
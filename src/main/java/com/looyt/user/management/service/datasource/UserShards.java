@@ -0,0 +1,172 @@
+package com.looyt.user.management.service.datasource;
+
+import com.looyt.user.management.service.id.SnowflakeIdGenerator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Shard placement and execution for the users tables.
+ * <p>
+ * Sequence ids carry their shard above {@link #SHARD_SHIFT}, so lookups by id route without a
+ * directory and rows created before sharding (shard bits all zero) stay on shard 0. Time-ordered ids
+ * start above every sequence id and carry the shard in their node bits instead. New users are placed by a hash
+ * of their email. With a single shard every method runs the work inline in the caller's transaction.
+ * With several, each call gets its own transaction on the target shard, because a transaction is
+ * pinned to the shard of its first statement.
+ */
+public class UserShards implements AutoCloseable {
+
+    public static final int SHARD_SHIFT = 40;
+    // Keeps sequence ids below 2^52, under the time-ordered ids, and every id below 2^53 so
+    // JavaScript clients still read them exactly
+    public static final int MAX_SHARDS = 1 << (52 - SHARD_SHIFT);
+
+    private final int count;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final ExecutorService scatterExecutor;
+
+    public UserShards(int count, PlatformTransactionManager transactionManager) {
+        if (count < 1 || count > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+        this.count = count;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.scatterExecutor = count > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public static long baseOf(int shard) {
+        return (long) shard << SHARD_SHIFT;
+    }
+
+    public int shardOf(long id) {
+        if (id >= SnowflakeIdGenerator.MIN_ID) {
+            return SnowflakeIdGenerator.shardOf(id, count);
+        }
+        long shard = id >>> SHARD_SHIFT;
+        // No row can have an id outside the configured shards; shard 0 answers "not found" for it
+        return shard < count ? (int) shard : 0;
+    }
+
+    public int shardFor(String email) {
+        return Math.floorMod(email.toLowerCase(Locale.ROOT).hashCode(), count);
+    }
+
+    public <T> T read(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        return ShardRouting.on(shard, () -> readTemplate.execute(status -> work.get()));
+    }
+
+    public <T> T write(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        return ShardRouting.on(shard, () -> writeTemplate.execute(status -> work.get()));
+    }
+
+    /**
+     * Scatter: runs the read on every shard in parallel and returns the results indexed by shard.
+     */
+    public <T> List<T> readAll(Supplier<T> work) {
+        if (!isSharded()) {
+            return List.of(work.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> read(target, work), scatterExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the write on each shard in turn, each in its own transaction. Shards that already
+     * committed stay committed if a later one fails.
+     */
+    public <T> List<T> writeAll(Supplier<T> work) {
+        List<T> results = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            results.add(write(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * Binds each shard in turn without opening a transaction, for jobs that manage their own.
+     */
+    public void forEach(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            ShardRouting.on(target, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Gather: k-way merge of per-shard results that are each already sorted by {@code order}.
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> runs, Comparator<? super T> order, int limit) {
+        if (runs.size() == 1) {
+            List<T> run = runs.get(0);
+            return run.size() <= limit ? run : run.subList(0, limit);
+        }
+        int[] positions = new int[runs.size()];
+        List<T> merged = new ArrayList<>(limit);
+        while (merged.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < runs.size(); i++) {
+                if (positions[i] < runs.get(i).size() && (next < 0
+                        || order.compare(runs.get(i).get(positions[i]), runs.get(next).get(positions[next])) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            merged.add(runs.get(next).get(positions[next]++));
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+}
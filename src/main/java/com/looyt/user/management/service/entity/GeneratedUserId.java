@@ -0,0 +1,23 @@
+package com.looyt.user.management.service.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * User id from the configured {@code IdGenerator}, or otherwise from a pooled database sequence
+ * whose values are offset into the id range of the shard being written.
+ */
+@IdGeneratorType(UserIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUserId {
+
+    String sequence();
+
+    // Must match the INCREMENT BY of the sequence
+    int allocationSize() default 50;
+}
@@ -4,7 +4,9 @@ import com.looyt.user.management.service.model.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.springframework.data.annotation.LastModifiedDate;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -15,15 +17,20 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Builder
+@SQLRestriction("deleted_at IS NULL")
+@SQLDelete(sql = "UPDATE users SET deleted_at = now() WHERE id = ? AND version = ?")
 public class User {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Time-ordered ids with app.id.generator=snowflake, otherwise pooled users_seq (V3) offset by the
+    // shard bits; see UserShards
+    @GeneratedUserId(sequence = "users_seq", allocationSize = 50)
     @Id
     private Long id;
 
     @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(nullable = false, unique = true)
+    // Unique among live rows only (partial index from V8)
+    @Column(nullable = false)
     private String email;
 
     @Enumerated(EnumType.STRING)
@@ -37,6 +44,14 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @LastModifiedDate
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt; }
\ No newline at end of file
+    // Set on insert and on every dirty flush; the change feed pages by (updated_at, id)
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt; }
\ No newline at end of file
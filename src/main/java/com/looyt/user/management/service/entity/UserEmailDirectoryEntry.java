@@ -0,0 +1,28 @@
+package com.looyt.user.management.service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Table(name = "user_email_directory")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+public class UserEmailDirectoryEntry {
+    @Id
+    private String email;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    // Null while the reservation is pending
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+}
@@ -0,0 +1,43 @@
+package com.looyt.user.management.service.entity;
+
+import com.looyt.user.management.service.model.UserEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Table(name = "user_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+public class UserEvent {
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_events_seq")
+    @SequenceGenerator(name = "user_events_seq", sequenceName = "user_events_seq", allocationSize = 50)
+    @Id
+    private Long id;
+
+    // Assigned in publish order by the outbox publisher; exposed to consumers as the event id
+    @Column(name = "sequence_number", unique = true)
+    private Long sequenceNumber;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private UserEventType eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,80 @@
+package com.looyt.user.management.service.entity;
+
+import com.looyt.user.management.service.datasource.ShardRouting;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.id.IdGenerator;
+import com.looyt.user.management.service.id.IdGenerators;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delegates to the installed {@link IdGenerator} when there is one. Otherwise allocates the same way
+ * as Hibernate's pooled optimizer (each nextval is the top of a block of {@code allocationSize} ids),
+ * but with one block per shard: a block taken from shard 1's sequence must never be handed to a row
+ * written to shard 2. The shard is the one bound in
+ * {@link ShardRouting}, which is also where the session's connection points.
+ */
+public class UserIdGenerator implements IdentifierGenerator {
+
+    private final String nextValueSql;
+    private final int allocationSize;
+    private final ConcurrentMap<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    public UserIdGenerator(GeneratedUserId config) {
+        this.nextValueSql = "select nextval('" + config.sequence() + "')";
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardRouting.current();
+        Optional<IdGenerator> installed = IdGenerators.installed();
+        if (installed.isPresent()) {
+            return installed.get().nextId(shard);
+        }
+        Block block = blocks.computeIfAbsent(shard, key -> new Block());
+        // A lock rather than a monitor: the nextval round trip must not pin a virtual thread's carrier
+        block.lock.lock();
+        try {
+            if (block.next > block.last) {
+                long hi = nextValue(session);
+                block.next = hi - allocationSize + 1;
+                block.last = hi;
+            }
+            return UserShards.baseOf(shard) + block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private long nextValue(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(nextValueSql);
+        try {
+            ResultSet resultSet = jdbc.getResultSetReturn().extract(statement, nextValueSql);
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not read the next value of the id sequence", nextValueSql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long last = 0;
+    }
+}
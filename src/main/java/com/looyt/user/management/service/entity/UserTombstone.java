@@ -0,0 +1,36 @@
+package com.looyt.user.management.service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Table(name = "user_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Builder
+public class UserTombstone implements Persistable<Long> {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    // Tombstones are insert-only, so saveAll persists without a select per id
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
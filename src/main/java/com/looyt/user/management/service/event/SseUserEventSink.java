@@ -0,0 +1,46 @@
+package com.looyt.user.management.service.event;
+
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+@Slf4j
+public class SseUserEventSink implements UserEventSink {
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public void register(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+    }
+
+    @Override
+    public void deliver(List<UserEventResponse> events) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                send(emitter, events);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    public static void send(SseEmitter emitter, List<UserEventResponse> events) throws IOException {
+        for (UserEventResponse event : events) {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getEventId()))
+                    .name(event.getType().name())
+                    .data(event));
+        }
+    }
+}
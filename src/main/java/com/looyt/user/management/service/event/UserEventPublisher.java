@@ -0,0 +1,152 @@
+package com.looyt.user.management.service.event;
+
+import com.looyt.user.management.service.datasource.ShardRouting;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.entity.UserEvent;
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import com.looyt.user.management.service.repository.UserEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches: assigns consecutive sequence numbers under a cluster-wide advisory
+ * lock, marks the batch published, then hands it to every sink. Sharded, the lock is taken on shard 0
+ * and held while the shards are drained one after another, so sequence numbers stay global. Shards
+ * commit their batches separately, so shard 0 also keeps a committed mark that only moves once every
+ * shard has committed; readers never return events above it.
+ * <p>
+ * Each batch advances the persisted high-water mark in {@code user_event_sequence} in its own
+ * transaction, so numbering carries on after the retention cleanup has deleted every published event.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.events.publisher.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventPublisher {
+
+    private static final long PUBLISHER_LOCK_KEY = 7_301_013L;
+
+    private final UserEventRepository userEventRepository;
+    private final UserShards userShards;
+    private final List<UserEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public UserEventPublisher(UserEventRepository userEventRepository,
+                              UserShards userShards,
+                              List<UserEventSink> sinks,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.events.publisher.batch-size:500}") int batchSize,
+                              @Value("${app.events.retention:7d}") Duration retention) {
+        this.userEventRepository = userEventRepository;
+        this.userShards = userShards;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.publisher.poll-interval:500ms}")
+    public void drain() {
+        if (userShards.isSharded()) {
+            drainShards();
+            return;
+        }
+        List<UserEventResponse> published;
+        do {
+            published = transactionTemplate.execute(status -> userEventRepository.tryPublisherLock(PUBLISHER_LOCK_KEY)
+                    ? publishBatch(userEventRepository.findLastSequenceNumber() + 1)
+                    : List.of());
+            deliverPublished(published);
+        } while (published != null && published.size() == batchSize);
+    }
+
+    private void drainShards() {
+        transactionTemplate.executeWithoutResult(status -> ShardRouting.on(0, () -> {
+            if (!userEventRepository.tryPublisherLock(PUBLISHER_LOCK_KEY)) {
+                return null;
+            }
+            long next = userShards.readAll(userEventRepository::findLastSequenceNumber).stream()
+                    .mapToLong(Long::longValue)
+                    .max()
+                    .orElse(0) + 1;
+            for (int shard = 0; shard < userShards.count(); shard++) {
+                List<UserEventResponse> published;
+                do {
+                    long first = next;
+                    published = userShards.write(shard, () -> publishBatch(first));
+                    next += published.size();
+                    deliverPublished(published);
+                } while (published.size() == batchSize);
+            }
+            // Commits with the lock transaction, after every shard's batches have committed
+            userEventRepository.advanceCommittedSequenceNumber(next - 1);
+            return null;
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.cleanup-interval:1h}")
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status ->
+                userShards.writeAll(() -> userEventRepository.deletePublishedBefore(cutoff)).stream()
+                        .mapToInt(Integer::intValue)
+                        .sum());
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} published user events older than {}", deleted, retention);
+        }
+    }
+
+    private void deliverPublished(List<UserEventResponse> published) {
+        if (published != null && !published.isEmpty()) {
+            log.debug("Published {} user events up to event id {}",
+                    published.size(), published.get(published.size() - 1).getEventId());
+            deliver(published);
+        }
+    }
+
+    // Caller holds the publisher lock
+    private List<UserEventResponse> publishBatch(long firstSequenceNumber) {
+        List<UserEvent> batch = userEventRepository.findUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        long next = firstSequenceNumber;
+        LocalDateTime now = LocalDateTime.now();
+        for (UserEvent event : batch) {
+            event.setSequenceNumber(next++);
+            event.setPublishedAt(now);
+        }
+        userEventRepository.advanceLastSequenceNumber(next - 1);
+        return batch.stream().map(UserEventPublisher::toResponse).toList();
+    }
+
+    private void deliver(List<UserEventResponse> events) {
+        for (UserEventSink sink : sinks) {
+            try {
+                sink.deliver(events);
+            } catch (RuntimeException e) {
+                log.warn("User event sink {} failed to deliver {} events: {}",
+                        sink.getClass().getSimpleName(), events.size(), e.getMessage());
+            }
+        }
+    }
+
+    public static UserEventResponse toResponse(UserEvent event) {
+        return UserEventResponse.builder()
+                .eventId(event.getSequenceNumber())
+                .userId(event.getUserId())
+                .type(event.getEventType())
+                .payload(event.getPayload())
+                .occurredAt(event.getCreatedAt())
+                .build();
+    }
+}
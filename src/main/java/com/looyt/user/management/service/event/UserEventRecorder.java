@@ -0,0 +1,53 @@
+package com.looyt.user.management.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.entity.UserEvent;
+import com.looyt.user.management.service.mapper.UserMapper;
+import com.looyt.user.management.service.model.UserEventType;
+import com.looyt.user.management.service.repository.UserEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes change events to the outbox table in the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventRecorder {
+
+    private final UserEventRepository userEventRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UserEventType type, User user) {
+        userEventRepository.save(toEvent(type, user));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(UserEventType type, Collection<User> users) {
+        userEventRepository.saveAll(users.stream().map(user -> toEvent(type, user)).toList());
+    }
+
+    private UserEvent toEvent(UserEventType type, User user) {
+        Object payload = type == UserEventType.DELETED
+                ? Map.of("id", user.getId(), "email", user.getEmail())
+                : userMapper.toResponse(user);
+        try {
+            return UserEvent.builder()
+                    .userId(user.getId())
+                    .eventType(type)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event for user " + user.getId(), e);
+        }
+    }
+}
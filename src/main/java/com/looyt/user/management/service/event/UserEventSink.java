@@ -0,0 +1,13 @@
+package com.looyt.user.management.service.event;
+
+import com.looyt.user.management.service.model.response.UserEventResponse;
+
+import java.util.List;
+
+/**
+ * Push delivery of published events. Delivery is best effort: events are already durable in the
+ * outbox, and consumers that miss a push catch up through GET /v1/api/users/events?since=.
+ */
+public interface UserEventSink {
+    void deliver(List<UserEventResponse> events);
+}
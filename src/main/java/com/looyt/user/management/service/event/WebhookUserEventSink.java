@@ -0,0 +1,49 @@
+package com.looyt.user.management.service.event;
+
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.events.webhook.enabled", havingValue = "true")
+public class WebhookUserEventSink implements UserEventSink {
+
+    private final RestClient restClient;
+    private final List<String> urls;
+
+    public WebhookUserEventSink(RestClient.Builder restClientBuilder,
+                                @Value("${app.events.webhook.urls}") List<String> urls,
+                                @Value("${app.events.webhook.timeout:2s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.urls = List.copyOf(urls);
+    }
+
+    @Override
+    public void deliver(List<UserEventResponse> events) {
+        for (String url : urls) {
+            try {
+                restClient.post()
+                        .uri(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(events)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (RestClientException e) {
+                log.warn("Webhook {} rejected {} user events: {}", url, events.size(), e.getMessage());
+            }
+        }
+    }
+}
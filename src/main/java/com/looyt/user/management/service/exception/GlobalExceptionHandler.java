@@ -1,6 +1,7 @@
 package com.looyt.user.management.service.exception;
 
 import com.looyt.user.management.service.model.response.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +36,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        String path = request.getDescription(false).replace("uri=", "");
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message("Resource was modified concurrently, reload and retry")
+                .errorCode("CONCURRENT_MODIFICATION")
+                .path(path)
+                .status(HttpStatus.CONFLICT.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex, WebRequest request) {
         String path = request.getDescription(false).replace("uri=", "");
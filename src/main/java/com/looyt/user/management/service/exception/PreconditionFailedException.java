@@ -0,0 +1,14 @@
+package com.looyt.user.management.service.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends BusinessException {
+    public PreconditionFailedException(Long userId) {
+        super("User with ID: " + userId + " has been modified since the given version");
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.looyt.user.management.service.id;
+
+/**
+ * Allocates user ids in the application instead of the database. Implementations must be safe to call
+ * from any number of threads and must encode the shard so that {@code UserShards.shardOf} can route by id.
+ */
+public interface IdGenerator {
+
+    long nextId(int shard);
+}
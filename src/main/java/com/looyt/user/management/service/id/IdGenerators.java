@@ -0,0 +1,28 @@
+package com.looyt.user.management.service.id;
+
+import java.util.Optional;
+
+/**
+ * The generator chosen by {@code app.id.generator}, published for Hibernate, which instantiates
+ * entity id generators itself and cannot have Spring beans injected. Empty means the database
+ * sequence allocates ids.
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator installed;
+
+    private IdGenerators() {
+    }
+
+    public static Optional<IdGenerator> installed() {
+        return Optional.ofNullable(installed);
+    }
+
+    public static void install(IdGenerator generator) {
+        installed = generator;
+    }
+
+    public static void uninstall() {
+        installed = null;
+    }
+}
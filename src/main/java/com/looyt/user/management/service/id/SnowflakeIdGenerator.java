@@ -0,0 +1,93 @@
+package com.looyt.user.management.service.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ids that stay below 2^53, so JavaScript clients read them exactly: a marker bit at
+ * {@link #MIN_ID}, 40 bits of milliseconds since {@link #EPOCH} (until 2059), 6 node bits and a 6-bit
+ * sequence within the millisecond.
+ * <p>
+ * The node bits hold the shard in their high part and the configured node id in the rest, so every
+ * instance and shard draws from a disjoint range. Allocation is a single CAS on the packed
+ * (millisecond, sequence) state. When a millisecond runs out of sequence numbers, or the clock steps
+ * back, the state simply moves on to the next millisecond instead of waiting for the clock, so ids
+ * stay unique and increasing per instance and run at most briefly ahead of the wall clock.
+ * <p>
+ * Every id is at least {@link #MIN_ID}, above any id the database sequence can produce, so both
+ * kinds coexist in one table and decode unambiguously.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+    public static final int NODE_BITS = 6;
+    public static final int MAX_SHARDS = 1 << NODE_BITS;
+    public static final long MIN_ID = 1L << 52;
+
+    private static final int SEQUENCE_BITS = 6;
+    private static final int TIMESTAMP_BITS = 40;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long TIMESTAMP_MASK = (1L << TIMESTAMP_BITS) - 1;
+
+    private final long[] nodeFields;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId, int shardCount) {
+        this(nodeId, shardCount, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int nodeId, int shardCount, LongSupplier clock) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new IllegalArgumentException("Time-ordered ids support between 1 and " + MAX_SHARDS + " shards");
+        }
+        int workerBits = workerBits(shardCount);
+        if (nodeId < 0 || nodeId >= 1 << workerBits) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1 << workerBits) - 1)
+                    + " with " + shardCount + " shard(s)");
+        }
+        this.nodeFields = new long[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            nodeFields[shard] = ((long) shard << workerBits | nodeId) << SEQUENCE_BITS;
+        }
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId(int shard) {
+        long now = (clock.getAsLong() - EPOCH.toEpochMilli()) << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = state.get();
+            // A full sequence carries into the millisecond bits
+            next = Math.max(now, last + 1);
+        } while (!state.compareAndSet(last, next));
+        long millis = next >>> SEQUENCE_BITS;
+        if (millis > TIMESTAMP_MASK) {
+            throw new IllegalStateException("Time-ordered ids ran out of timestamp bits");
+        }
+        return MIN_ID | millis << TIMESTAMP_SHIFT | nodeFields[shard] | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * The shard encoded in an id from this generator; ids outside the configured shards map to 0.
+     */
+    public static int shardOf(long id, int shardCount) {
+        long shard = (id >>> SEQUENCE_BITS & NODE_MASK) >>> workerBits(shardCount);
+        return shard < shardCount ? (int) shard : 0;
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> TIMESTAMP_SHIFT & TIMESTAMP_MASK);
+    }
+
+    // Node bits left for the node id once the shard takes the bits it needs
+    private static int workerBits(int shardCount) {
+        return NODE_BITS - (Integer.SIZE - Integer.numberOfLeadingZeros(shardCount - 1));
+    }
+}
@@ -0,0 +1,47 @@
+package com.looyt.user.management.service.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@RequiredArgsConstructor
+public class LogSamplingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SUPPRESSED_ATTRIBUTE = LogSamplingInterceptor.class.getName() + ".SUPPRESSED";
+
+    private final LogSamplingProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch of the same request keeps the decision made on the first dispatch
+        Object decided = request.getAttribute(SUPPRESSED_ATTRIBUTE);
+        boolean suppressed;
+        if (decided != null) {
+            suppressed = (Boolean) decided;
+        } else {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            double rate = properties.rateFor(request.getMethod() + " " + pattern);
+            suppressed = rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate;
+            request.setAttribute(SUPPRESSED_ATTRIBUTE, suppressed);
+        }
+        if (suppressed) {
+            MDC.put(SampledLogTurboFilter.SUPPRESSED_MDC_KEY, "true");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MDC.remove(SampledLogTurboFilter.SUPPRESSED_MDC_KEY);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(SampledLogTurboFilter.SUPPRESSED_MDC_KEY);
+    }
+}
@@ -0,0 +1,21 @@
+package com.looyt.user.management.service.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Success-path log sampling rates. Endpoint keys are "METHOD pattern", e.g. "GET /v1/api/users/{id}".
+ */
+@ConfigurationProperties(prefix = "app.logging.sampling")
+public record LogSamplingProperties(Double defaultRate, Map<String, Double> endpoints) {
+
+    public LogSamplingProperties {
+        defaultRate = defaultRate == null ? 1.0 : defaultRate;
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    public double rateFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultRate);
+    }
+}
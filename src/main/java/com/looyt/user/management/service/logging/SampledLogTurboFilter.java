@@ -0,0 +1,25 @@
+package com.looyt.user.management.service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops below-WARN events for requests that were not sampled. Runs before the event is created,
+ * so suppressed log calls never format their message. Warnings and errors always pass.
+ */
+public class SampledLogTurboFilter extends TurboFilter {
+
+    public static final String SUPPRESSED_MDC_KEY = "logSuppressed";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != null && level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(SUPPRESSED_MDC_KEY) != null ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
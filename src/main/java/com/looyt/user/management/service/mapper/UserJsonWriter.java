@@ -0,0 +1,140 @@
+package com.looyt.user.management.service.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.looyt.user.management.service.model.response.UserResponse;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes users as JSON objects with pre-encoded field names instead of Jackson's reflective bean
+ * serializer, formatting timestamps into a scratch buffer. Produces the same JSON as the default
+ * {@link UserResponse} serialization.
+ * <p>
+ * Holds a scratch buffer, so an instance must not be shared between threads.
+ */
+public class UserJsonWriter {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializedString ROLE = new SerializedString("role");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private final char[] timestamp = new char[29];
+
+    public void write(JsonGenerator generator, UserResponse user) throws IOException {
+        generator.writeStartObject(user);
+        writeNumber(generator, ID, user.getId());
+        writeString(generator, USERNAME, user.getUsername());
+        writeString(generator, EMAIL, user.getEmail());
+        writeString(generator, PHONE_NUMBER, user.getPhoneNumber());
+        writeString(generator, ROLE, user.getRole() == null ? null : user.getRole().name());
+        writeTimestamp(generator, CREATED_AT, user.getCreatedAt());
+        writeTimestamp(generator, UPDATED_AT, user.getUpdatedAt());
+        writeNumber(generator, VERSION, user.getVersion());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the current row of a result set whose columns follow the {@link UserResponse} fields.
+     * Text columns go from the driver's row bytes to the output without becoming strings, so the
+     * generator must write UTF-8 bytes.
+     */
+    public void writeRow(JsonGenerator generator, ResultSet row) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(row.getLong(1));
+        writeUtf8(generator, USERNAME, row.getBytes(2));
+        writeUtf8(generator, EMAIL, row.getBytes(3));
+        writeUtf8(generator, PHONE_NUMBER, row.getBytes(4));
+        writeUtf8(generator, ROLE, row.getBytes(5));
+        writeTimestamp(generator, CREATED_AT, row.getObject(6, LocalDateTime.class));
+        writeTimestamp(generator, UPDATED_AT, row.getObject(7, LocalDateTime.class));
+        long version = row.getLong(8);
+        writeNumber(generator, VERSION, row.wasNull() ? null : version);
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeUtf8(JsonGenerator generator, SerializedString name, byte[] value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeUTF8String(value, 0, value.length);
+        }
+    }
+
+    private void writeTimestamp(JsonGenerator generator, SerializedString name, LocalDateTime value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            // Signed and five-digit years are rare enough to leave to the formatter
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            generator.writeString(timestamp, 0, formatTimestamp(value));
+        }
+    }
+
+    // Same text as ISO_LOCAL_DATE_TIME: seconds always, fraction only when non-zero and without trailing zeros
+    private int formatTimestamp(LocalDateTime value) {
+        char[] text = timestamp;
+        digits(text, 0, value.getYear(), 4);
+        text[4] = '-';
+        digits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, value.getDayOfMonth(), 2);
+        text[10] = 'T';
+        digits(text, 11, value.getHour(), 2);
+        text[13] = ':';
+        digits(text, 14, value.getMinute(), 2);
+        text[16] = ':';
+        digits(text, 17, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        int width = 9;
+        while (nano % 10 == 0) {
+            nano /= 10;
+            width--;
+        }
+        text[19] = '.';
+        digits(text, 20, nano, width);
+        return 20 + width;
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
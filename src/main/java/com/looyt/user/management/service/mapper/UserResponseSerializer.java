@@ -0,0 +1,32 @@
+package com.looyt.user.management.service.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Serializes every {@link UserResponse} (single users, pages, search results and the change feed)
+ * through {@link UserJsonWriter}. One writer is kept per serialization call, so its scratch buffer
+ * is never shared between threads.
+ */
+@JsonComponent
+public class UserResponseSerializer extends StdSerializer<UserResponse> {
+
+    public UserResponseSerializer() {
+        super(UserResponse.class);
+    }
+
+    @Override
+    public void serialize(UserResponse user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        UserJsonWriter writer = (UserJsonWriter) provider.getAttribute(UserJsonWriter.class);
+        if (writer == null) {
+            writer = new UserJsonWriter();
+            provider.setAttribute(UserJsonWriter.class, writer);
+        }
+        writer.write(generator, user);
+    }
+}
@@ -0,0 +1,30 @@
+package com.looyt.user.management.service.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements Hibernate prepares on the current thread while a request scope is open.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTER = new ThreadLocal<>();
+
+    public static void begin() {
+        COUNTER.set(new long[1]);
+    }
+
+    public static long end() {
+        long[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? 0 : counter[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
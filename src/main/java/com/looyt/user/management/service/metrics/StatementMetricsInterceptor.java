@@ -0,0 +1,44 @@
+package com.looyt.user.management.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+@RequiredArgsConstructor
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_COUNT_ATTRIBUTE = StatementMetricsInterceptor.class.getName() + ".STARTED_COUNT";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCountingInspector.begin();
+        return true;
+    }
+
+    // Statements run before the handler went async are carried over to the async dispatch
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(STARTED_COUNT_ATTRIBUTE, StatementCountingInspector.end());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long statements = StatementCountingInspector.end();
+        if (request.getAttribute(STARTED_COUNT_ATTRIBUTE) instanceof Long started) {
+            statements += started;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements prepared per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
@@ -0,0 +1,7 @@
+package com.looyt.user.management.service.model;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATED,
+    OMITTED,
+}
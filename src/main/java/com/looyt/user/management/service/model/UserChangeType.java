@@ -0,0 +1,6 @@
+package com.looyt.user.management.service.model;
+
+public enum UserChangeType {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,23 @@
+package com.looyt.user.management.service.model.request;
+
+import com.looyt.user.management.service.model.SearchMatch;
+import com.looyt.user.management.service.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserSearchCriteria {
+    private String username;
+    private String email;
+    private SearchMatch match;
+    private UserRole role;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,19 @@
+package com.looyt.user.management.service.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> results;
+}
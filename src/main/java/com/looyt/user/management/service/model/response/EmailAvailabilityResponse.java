@@ -0,0 +1,15 @@
+package com.looyt.user.management.service.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmailAvailabilityResponse {
+    private String email;
+    private boolean available;
+}
@@ -1,5 +1,7 @@
 package com.looyt.user.management.service.model.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.looyt.user.management.service.model.CountMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,11 +13,14 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
     private List<T> content;
-    private int pageNumber;
+    private Integer pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private CountMode totalCount;
     private boolean last;
-}
\ No newline at end of file
+    private String nextCursor;
+}
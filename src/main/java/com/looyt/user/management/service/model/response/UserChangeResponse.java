@@ -0,0 +1,22 @@
+package com.looyt.user.management.service.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.looyt.user.management.service.model.UserChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChangeResponse {
+    private UserChangeType type;
+    private Long id;
+    private LocalDateTime changedAt;
+    private UserResponse user;
+}
@@ -0,0 +1,23 @@
+package com.looyt.user.management.service.model.response;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.looyt.user.management.service.model.UserEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserEventResponse {
+    private Long eventId;
+    private Long userId;
+    private UserEventType type;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime occurredAt;
+}
@@ -20,4 +20,5 @@ public class UserResponse {
     private UserRole role;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
\ No newline at end of file
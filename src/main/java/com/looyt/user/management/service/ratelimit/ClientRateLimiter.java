@@ -0,0 +1,32 @@
+package com.looyt.user.management.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * One {@link TokenBucket} per client identity. Idle buckets expire once they would have refilled
+ * anyway, and the bounded cache keeps spoofed client ids from growing the heap.
+ */
+public class ClientRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleExpiry())
+                .build();
+    }
+
+    /**
+     * @return 0 when the call is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String client, int cost) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client,
+                key -> new TokenBucket(properties.capacity(), properties.refillPerSecond(), now));
+        return bucket.tryConsume(cost, now);
+    }
+}
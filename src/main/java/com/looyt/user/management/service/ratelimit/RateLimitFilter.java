@@ -0,0 +1,116 @@
+package com.looyt.user.management.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.user.management.service.model.response.ErrorResponse;
+import com.looyt.user.management.service.web.ClientIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every API request to its client's token bucket before {@code DatabaseAdmissionFilter}, so
+ * rejected calls never hold a database permit. No handler has been chosen yet at this point, so the
+ * configured "METHOD pattern" endpoints are matched here; async dispatches are not charged again.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/v1/api/";
+    private static final String OTHER_ENDPOINT = "other";
+
+    private final ClientRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final List<Endpoint> endpoints;
+    private final boolean trustClientIdHeader;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, RateLimitProperties properties, boolean trustClientIdHeader,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.endpoints = properties.endpoints().keySet().stream().map(Endpoint::parse).toList();
+        this.trustClientIdHeader = trustClientIdHeader;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpoint = endpointOf(request);
+        long waitNanos = rateLimiter.tryAcquire(ClientIdentity.resolve(request, trustClientIdHeader),
+                properties.costFor(endpoint));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Counter.builder("ratelimit.rejected")
+                .description("Requests rejected because the client ran out of rate limit tokens")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.warn("Rate limit exceeded for {} -retry after {}s", endpoint, retryAfterSeconds);
+        writeRejection(request, response, retryAfterSeconds);
+    }
+
+    private String endpointOf(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.method().equals(request.getMethod()) && endpoint.pattern().matches(path)) {
+                return endpoint.key();
+            }
+        }
+        return OTHER_ENDPOINT;
+    }
+
+    private void writeRejection(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message("Rate limit exceeded, retry after " + retryAfterSeconds + " seconds")
+                .errorCode("RATE_LIMIT_EXCEEDED")
+                .path(request.getRequestURI())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private record Endpoint(String key, String method, PathPattern pattern) {
+
+        static Endpoint parse(String key) {
+            int space = key.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException("Rate limit endpoint must be \"METHOD pattern\": " + key);
+            }
+            return new Endpoint(key, key.substring(0, space),
+                    PathPatternParser.defaultInstance.parse(key.substring(space + 1)));
+        }
+    }
+}
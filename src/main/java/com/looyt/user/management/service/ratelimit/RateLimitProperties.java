@@ -0,0 +1,28 @@
+package com.looyt.user.management.service.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-client token bucket settings. Endpoint keys are "METHOD pattern", e.g. "GET /v1/api/users",
+ * and map to the number of tokens one call costs.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(Long capacity, Double refillPerSecond, Integer defaultCost,
+                                  Map<String, Integer> endpoints, Duration idleExpiry, Long maxClients) {
+
+    public RateLimitProperties {
+        capacity = capacity == null ? 100 : capacity;
+        refillPerSecond = refillPerSecond == null ? 50.0 : refillPerSecond;
+        defaultCost = defaultCost == null ? 1 : defaultCost;
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+        idleExpiry = idleExpiry == null ? Duration.ofMinutes(10) : idleExpiry;
+        maxClients = maxClients == null ? 100_000 : maxClients;
+    }
+
+    public int costFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultCost);
+    }
+}
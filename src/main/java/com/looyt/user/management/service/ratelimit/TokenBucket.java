@@ -0,0 +1,42 @@
+package com.looyt.user.management.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in GCRA form: the whole state is one theoretical arrival time advanced with a CAS,
+ * so concurrent requests from the same client never take a lock.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final long capacity;
+
+    TokenBucket(long capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = capacity * nanosPerToken;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes {@code cost} tokens if available.
+     *
+     * @return 0 when the tokens were taken, otherwise the nanoseconds until they would be
+     */
+    long tryConsume(long cost, long nowNanos) {
+        long increment = Math.min(cost, capacity) * nanosPerToken;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + increment;
+            long waitNanos = next - burstNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
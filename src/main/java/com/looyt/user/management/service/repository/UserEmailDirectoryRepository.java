@@ -0,0 +1,86 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.UserEmailDirectoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Native statements take parallel arrays so a whole batch is reserved or settled in one round trip.
+ */
+@Repository
+public interface UserEmailDirectoryRepository extends JpaRepository<UserEmailDirectoryEntry, String> {
+
+    // Returns only the emails this call reserved; the rest already belong to someone
+    @Query(value = """
+            INSERT INTO user_email_directory (email, shard, reserved_at)
+            SELECT e.email, e.shard, now()
+            FROM unnest(cast(:emails AS text[]), cast(:shards AS int[])) AS e(email, shard)
+            ON CONFLICT (email) DO NOTHING
+            RETURNING email
+            """, nativeQuery = true)
+    List<String> reserve(@Param("emails") String[] emails, @Param("shards") Integer[] shards);
+
+    // Upsert, so a reservation the reconciler dropped too early is restored rather than lost
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_email_directory (email, shard, user_id, reserved_at)
+            SELECT e.email, e.shard, e.user_id, now()
+            FROM unnest(cast(:emails AS text[]), cast(:shards AS int[]), cast(:userIds AS bigint[]))
+                AS e(email, shard, user_id)
+            ON CONFLICT (email) DO UPDATE SET user_id = EXCLUDED.user_id
+            WHERE user_email_directory.shard = EXCLUDED.shard
+            """, nativeQuery = true)
+    int confirm(@Param("emails") String[] emails, @Param("shards") Integer[] shards, @Param("userIds") Long[] userIds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_email_directory SET user_id = NULL, reserved_at = now()
+            WHERE email = ANY(cast(:emails AS text[]))
+            """, nativeQuery = true)
+    int markPending(@Param("emails") String[] emails);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM user_email_directory
+            WHERE email = ANY(cast(:emails AS text[])) AND user_id IS NULL
+            """, nativeQuery = true)
+    int release(@Param("emails") String[] emails);
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_email_directory SET user_id = NULL, reserved_at = now()
+            WHERE user_id = ANY(cast(:userIds AS bigint[]))
+            """, nativeQuery = true)
+    int markPendingByUserIds(@Param("userIds") Long[] userIds);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM user_email_directory
+            WHERE email = ANY(cast(:emails AS text[]))
+              AND (user_id IS NULL OR user_id = ANY(cast(:userIds AS bigint[])))
+            """, nativeQuery = true)
+    int releaseDeleted(@Param("emails") String[] emails, @Param("userIds") Long[] userIds);
+
+    @Query("select d.shard from UserEmailDirectoryEntry d where d.email = :email")
+    Optional<Integer> findShardByEmail(@Param("email") String email);
+
+    @Query(value = """
+            SELECT * FROM user_email_directory
+            WHERE user_id IS NULL AND reserved_at < :cutoff
+            ORDER BY reserved_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserEmailDirectoryEntry> findStalePending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from UserEmailDirectoryEntry d " +
+            "where d.email = :email and d.userId is null and d.reservedAt = :reservedAt")
+    int deleteStale(@Param("email") String email, @Param("reservedAt") LocalDateTime reservedAt);
+}
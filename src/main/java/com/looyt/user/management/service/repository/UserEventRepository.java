@@ -0,0 +1,51 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.UserEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserEventRepository extends JpaRepository<UserEvent, Long> {
+
+    // Transaction-scoped: only one publisher assigns sequence numbers at a time, so they commit in order
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryPublisherLock(@Param("key") long key);
+
+    @Query(value = "SELECT * FROM user_events WHERE published_at IS NULL ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<UserEvent> findUnpublished(@Param("limit") int limit);
+
+    // The persisted high-water mark survives the retention cleanup; the table maximum covers rows it has not seen yet
+    @Query(value = """
+            SELECT GREATEST((SELECT last_sequence_number FROM user_event_sequence WHERE id = 1),
+                            (SELECT MAX(sequence_number) FROM user_events), 0)
+            """, nativeQuery = true)
+    long findLastSequenceNumber();
+
+    @Modifying
+    @Query(value = "UPDATE user_event_sequence SET last_sequence_number = GREATEST(last_sequence_number, :sequenceNumber) WHERE id = 1",
+            nativeQuery = true)
+    int advanceLastSequenceNumber(@Param("sequenceNumber") long sequenceNumber);
+
+    @Query(value = "SELECT committed_sequence_number FROM user_event_sequence WHERE id = 1", nativeQuery = true)
+    long findCommittedSequenceNumber();
+
+    @Modifying
+    @Query(value = "UPDATE user_event_sequence SET committed_sequence_number = GREATEST(committed_sequence_number, :sequenceNumber) WHERE id = 1",
+            nativeQuery = true)
+    int advanceCommittedSequenceNumber(@Param("sequenceNumber") long sequenceNumber);
+
+    List<UserEvent> findBySequenceNumberGreaterThanAndSequenceNumberLessThanEqualOrderBySequenceNumberAsc(
+            long after, long upTo, Limit limit);
+
+    @Modifying
+    @Query("delete from UserEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
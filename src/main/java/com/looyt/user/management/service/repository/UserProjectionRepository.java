@@ -0,0 +1,31 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Specification queries that select straight into {@link UserResponse}, so rows are never
+ * hydrated into managed entities or snapshotted for dirty checking.
+ */
+public interface UserProjectionRepository {
+
+    List<UserResponse> findResponses(Specification<User> filter, Sort sort, int limit);
+
+    /**
+     * Streams every live user in id order through a forward-only cursor and hands each JDBC row to
+     * {@code handler} without mapping it to an object. Columns follow the {@link UserResponse} fields.
+     * Must run inside a transaction; returns the number of rows.
+     */
+    long forEachResponseRow(ResponseRowHandler handler);
+
+    @FunctionalInterface
+    interface ResponseRowHandler {
+        void handle(ResultSet row, long rowNumber) throws SQLException;
+    }
+}
@@ -0,0 +1,75 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.response.UserResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+@RequiredArgsConstructor
+class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    // Column order must match the UserResponse fields; soft-deleted rows are filtered by hand here
+    private static final String RESPONSE_ROWS = "SELECT id, username, email, phone_number, role, created_at, "
+            + "updated_at, version FROM users WHERE deleted_at IS NULL ORDER BY id";
+    private static final int ROW_FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<UserResponse> findResponses(Specification<User> filter, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> root = query.from(User.class);
+
+        // Argument order must match the UserResponse all-args constructor
+        query.select(cb.construct(UserResponse.class,
+                root.get("id"),
+                root.get("username"),
+                root.get("email"),
+                root.get("phoneNumber"),
+                root.get("role"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long forEachResponseRow(ResponseRowHandler handler) {
+        // The transaction's own connection, so shard and replica routing still apply
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RESPONSE_ROWS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(ROW_FETCH_SIZE);
+                long count = 0;
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        handler.handle(rows, ++count);
+                    }
+                }
+                return count;
+            }
+        });
+    }
+}
@@ -2,17 +2,128 @@ package com.looyt.user.management.service.repository;
 
 import com.looyt.user.management.service.entity.User;
 import com.looyt.user.management.service.model.UserRole;
+import com.looyt.user.management.service.model.response.UserResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
-public interface UserRepository extends JpaRepository<User,Long> {
+public interface UserRepository extends JpaRepository<User,Long>, JpaSpecificationExecutor<User>,
+        UserProjectionRepository {
+
+    // Constructor expression: list reads skip entity hydration, snapshots and dirty checking
+    String RESPONSE_PROJECTION = "select new com.looyt.user.management.service.model.response.UserResponse(" +
+            "u.id, u.username, u.email, u.phoneNumber, u.role, u.createdAt, u.updatedAt, u.version) from User u";
+
     User findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     Page<User> findByRole(UserRole role, Pageable pageable);
     Page<User> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
-}
\ No newline at end of file
+
+    // Page content only; the count is issued separately so both can be timed
+    @Query(RESPONSE_PROJECTION)
+    List<UserResponse> findAllResponsesBy(Pageable pageable);
+
+    // Fetches one extra row to answer hasNext without counting
+    @Query(RESPONSE_PROJECTION)
+    Slice<UserResponse> findResponseSliceBy(Pageable pageable);
+
+    // Planner statistics; -1 until the table has been analyzed
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass", nativeQuery = true)
+    long estimateRowCount();
+
+    // Whatever the number of ids, one statement text and one array bind, so the plan is prepared once
+    @Query(value = "SELECT * FROM users WHERE id = ANY(cast(:ids AS bigint[])) AND deleted_at IS NULL",
+            nativeQuery = true)
+    List<User> findAllByIdArray(@Param("ids") Long[] ids);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.looyt.user.management.service.repository.UserVersion(u.version, " +
+            "u.updatedAt) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    // One round trip: relies on the unique email constraint instead of a separate existence check.
+    // id comes from the installed IdGenerator; 0 draws from users_seq, offset by shardBase
+    // (UserShards.baseOf(shard)) the same way the entity id generator does.
+    @Query(value = """
+            INSERT INTO users (id, username, email, role, phone_number, created_at, updated_at)
+            VALUES (COALESCE(NULLIF(:id, 0), :shardBase + nextval('users_seq')),
+                    :username, :email, :role, :phoneNumber, now(), now())
+            ON CONFLICT (email) WHERE deleted_at IS NULL DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<User> insertIfEmailAbsent(@Param("id") long id,
+                                       @Param("shardBase") long shardBase,
+                                       @Param("username") String username,
+                                       @Param("email") String email,
+                                       @Param("role") String role,
+                                       @Param("phoneNumber") String phoneNumber);
+
+    // Soft delete in one statement; RETURNING hands back the email for cache eviction and the event payload
+    @Query(value = """
+            UPDATE users SET deleted_at = now()
+            WHERE id = :id AND deleted_at IS NULL
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<User> softDeleteById(@Param("id") Long id);
+
+    @Query(value = """
+            UPDATE users SET deleted_at = now()
+            WHERE id IN (:ids) AND deleted_at IS NULL
+            RETURNING *
+            """, nativeQuery = true)
+    List<User> softDeleteAllById(@Param("ids") Collection<Long> ids);
+
+    // SKIP LOCKED keeps the purge off rows that a concurrent request is touching
+    @Modifying
+    @Query(value = """
+            DELETE FROM users WHERE id IN (
+                SELECT id FROM users
+                WHERE deleted_at < :cutoff
+                ORDER BY deleted_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    // Forward-only server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(RESPONSE_PROJECTION + " order by u.id")
+    Stream<UserResponse> streamAllResponsesOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @Query("select u.email from User u where u.updatedAt >= :since")
+    List<String> findEmailsUpdatedSince(@Param("since") LocalDateTime since);
+
+    default List<User> findNextKeysetPage(Specification<User> seek, Sort sort, int limit) {
+        return findBy(seek, query -> query.sortBy(sort).limit(limit).all());
+    }
+}
@@ -0,0 +1,71 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.UserRole;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> unrestricted() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    /**
+     * Case-insensitive LIKE on {@code lower(field)}, served by the pg_trgm GIN indexes from V4.
+     * LIKE wildcards in the term are escaped so they match literally.
+     */
+    public static Specification<User> fieldMatches(String field, String term, boolean prefixOnly) {
+        String escaped = term.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        String pattern = prefixOnly ? escaped + "%" : "%" + escaped + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get(field)), pattern, '\\');
+    }
+
+    public static Specification<User> hasRole(UserRole role) {
+        return (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("createdAt"), to);
+    }
+
+    public static Specification<User> updatedBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("updatedAt"), to);
+    }
+
+    /**
+     * Seek predicate for keyset pagination: rows strictly after {@code (value, id)} in the
+     * given direction, i.e. {@code key > value OR (key = value AND id > id)} for ascending order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<User> seekAfter(String sortKey, Sort.Direction direction,
+                                                Comparable value, Long id) {
+        return (root, query, cb) -> {
+            if ("id".equals(sortKey)) {
+                return direction.isAscending()
+                        ? cb.greaterThan(root.<Long>get("id"), id)
+                        : cb.lessThan(root.<Long>get("id"), id);
+            }
+            if (direction.isAscending()) {
+                return cb.or(
+                        cb.greaterThan(root.<Comparable>get(sortKey), value),
+                        cb.and(cb.equal(root.<Comparable>get(sortKey), value), cb.greaterThan(root.<Long>get("id"), id)));
+            }
+            return cb.or(
+                    cb.lessThan(root.<Comparable>get(sortKey), value),
+                    cb.and(cb.equal(root.<Comparable>get(sortKey), value), cb.lessThan(root.<Long>get("id"), id)));
+        };
+    }
+}
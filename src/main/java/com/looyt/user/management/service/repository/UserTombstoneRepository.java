@@ -0,0 +1,30 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    // Keyset seek over the (deleted_at, user_id) index, mirroring the users change feed
+    @Query("select t from UserTombstone t " +
+            "where (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.userId > :userId)) " +
+            "and t.deletedAt < :settledBefore " +
+            "order by t.deletedAt, t.userId")
+    List<UserTombstone> findNextPage(@Param("deletedAt") LocalDateTime deletedAt,
+                                     @Param("userId") Long userId,
+                                     @Param("settledBefore") LocalDateTime settledBefore,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("delete from UserTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
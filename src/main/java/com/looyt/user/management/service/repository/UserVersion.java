@@ -0,0 +1,6 @@
+package com.looyt.user.management.service.repository;
+
+import java.time.LocalDateTime;
+
+public record UserVersion(Long version, LocalDateTime lastModified) {
+}
@@ -0,0 +1,101 @@
+package com.looyt.user.management.service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, safe for concurrent adds and lookups without locking.
+ * Sized for {@code capacity} entries at the requested false-positive rate; beyond that the rate
+ * degrades and the owner should build a larger one.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong added = new AtomicLong();
+
+    BloomFilter(long capacity, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact(Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount * Long.SIZE;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+                current = words.get(word);
+            }
+        }
+        // Re-adding a value sets no new bits, so this approximates the number of distinct values
+        if (changed) {
+            added.incrementAndGet();
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long added() {
+        return added.get();
+    }
+
+    long sizeInBytes() {
+        return bits / Byte.SIZE;
+    }
+
+    // (1 - e^(-kn/m))^k for the n entries added so far
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashes * (double) added.get() / bits), hashes);
+    }
+
+    private long index(int combined) {
+        return (combined & 0xFFFFFFFFL) % bits;
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves are usable
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
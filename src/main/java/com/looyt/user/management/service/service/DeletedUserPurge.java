@@ -0,0 +1,55 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Hard-deletes soft-deleted users past the retention window. Each batch commits on its own so
+ * row locks stay short and replication sees small transactions. Shards are purged one after another.
+ */
+@Component
+@Slf4j
+public class DeletedUserPurge {
+
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+
+    public DeletedUserPurge(UserRepository userRepository,
+                            UserShards userShards,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.soft-delete.retention:30d}") Duration retention,
+                            @Value("${app.soft-delete.purge-batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.userShards = userShards;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.soft-delete.purge-interval:1h}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        userShards.forEach(shard -> {
+            long total = 0;
+            Integer purged;
+            do {
+                purged = transactionTemplate.execute(status -> userRepository.purgeDeletedBefore(cutoff, batchSize));
+                total += purged == null ? 0 : purged;
+            } while (purged != null && purged == batchSize);
+            if (total > 0) {
+                log.info("Purged {} users deleted before {} on shard {}", total, cutoff, shard);
+            }
+        });
+    }
+}
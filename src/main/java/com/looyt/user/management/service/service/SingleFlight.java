@@ -0,0 +1,44 @@
+package com.looyt.user.management.service.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one. The first caller (the leader) runs the
+ * load on its own thread; callers arriving while it runs get the leader's pending future and do not
+ * hold a thread while they wait. Once the load finishes the key is free again, so nothing is cached.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Result of {@link #execute}: {@code leader} is false when the call joined another one's load.
+     */
+    record Call<V>(CompletableFuture<V> result, boolean leader) {
+    }
+
+    Call<V> execute(K key, Supplier<V> load) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            // A copy, so a follower completing or cancelling its future cannot affect the others
+            return new Call<>(existing.copy(), false);
+        }
+        try {
+            V value = load.get();
+            inFlight.remove(key, flight);
+            flight.complete(value);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return new Call<>(flight.copy(), true);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
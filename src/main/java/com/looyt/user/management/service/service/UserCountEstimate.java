@@ -0,0 +1,43 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Approximate user count for {@link com.looyt.user.management.service.model.CountMode#ESTIMATED} pages.
+ * Reads the planner statistics in {@code pg_class.reltuples}, which include soft-deleted rows not yet
+ * purged, and falls back to an exact count only while the table has never been analyzed. Sharded,
+ * the per-shard figures are summed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCountEstimate {
+
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+
+    private volatile Long estimate;
+
+    public long get() {
+        Long current = estimate;
+        return current != null ? current : refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.pagination.count-refresh-interval:1m}")
+    @Transactional(readOnly = true)
+    public long refresh() {
+        long refreshed = userShards.readAll(() -> {
+            long reltuples = userRepository.estimateRowCount();
+            return reltuples >= 0 ? reltuples : userRepository.count();
+        }).stream().mapToLong(Long::longValue).sum();
+        estimate = refreshed;
+        log.debug("Refreshed user count estimate: {} over {} shards", refreshed, userShards.count());
+        return refreshed;
+    }
+}
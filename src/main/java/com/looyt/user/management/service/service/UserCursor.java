@@ -0,0 +1,64 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.exception.ValidationException;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque keyset position: the sort key, direction and the {@code (sortKey, id)} pair of the
+ * last row returned. Encoded as URL-safe Base64 so clients treat it as a token.
+ */
+record UserCursor(String sortBy, Sort.Direction direction, String value, Long id) {
+
+    static final Set<String> SORT_KEYS = Set.of("id", "username", "email", "createdAt", "updatedAt");
+
+    private static final String SEPARATOR = ":";
+
+    static UserCursor after(UserResponse user, String sortBy, Sort.Direction direction) {
+        String value = switch (sortBy) {
+            case "id" -> String.valueOf(user.getId());
+            case "username" -> user.getUsername();
+            case "email" -> user.getEmail();
+            case "createdAt" -> user.getCreatedAt().toString();
+            case "updatedAt" -> user.getUpdatedAt().toString();
+            default -> throw new ValidationException("Unsupported cursor sort field: " + sortBy);
+        };
+        return new UserCursor(sortBy, direction, value, user.getId());
+    }
+
+    static UserCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4 || !SORT_KEYS.contains(parts[0])) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new UserCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[3], Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Comparable<?> typedValue() {
+        try {
+            return switch (sortBy) {
+                case "id" -> Long.valueOf(value);
+                case "createdAt", "updatedAt" -> LocalDateTime.parse(value);
+                default -> value;
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
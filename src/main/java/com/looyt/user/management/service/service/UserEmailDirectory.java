@@ -0,0 +1,154 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.config.ShardingProperties;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.entity.UserEmailDirectoryEntry;
+import com.looyt.user.management.service.repository.UserEmailDirectoryRepository;
+import com.looyt.user.management.service.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Global email uniqueness across shards, kept in {@code user_email_directory} on shard 0.
+ * <p>
+ * Every change goes through a pending reservation that is committed before the shard write and
+ * settled after it, so no shard transaction ever waits on shard 0: confirmed once the shard commits, released if it rolled back. If the process dies
+ * in between, {@link #reconcile()} settles the pending row against what the shard actually holds.
+ * Without sharding nothing is recorded and the unique index on users stays authoritative; claims
+ * then only look up which emails live users already have. Sharded startup adds the users
+ * created in the meantime (see {@code ShardingConfig}).
+ */
+@Component
+@Slf4j
+public class UserEmailDirectory {
+
+    private static final int DIRECTORY_SHARD = 0;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final UserEmailDirectoryRepository directoryRepository;
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+    private final Duration reservationGrace;
+
+    public UserEmailDirectory(UserEmailDirectoryRepository directoryRepository,
+                              UserRepository userRepository,
+                              UserShards userShards,
+                              ShardingProperties shardingProperties) {
+        this.directoryRepository = directoryRepository;
+        this.userRepository = userRepository;
+        this.userShards = userShards;
+        this.reservationGrace = shardingProperties.reservationGrace();
+    }
+
+    /**
+     * Reserves each email for the given shard and returns the emails that were free. Unsharded, only
+     * filters out emails already taken by live users.
+     */
+    public Set<String> claim(Map<String, Integer> shardByEmail) {
+        if (shardByEmail.isEmpty()) {
+            return new HashSet<>();
+        }
+        if (!userShards.isSharded()) {
+            Set<String> free = new HashSet<>(shardByEmail.keySet());
+            userRepository.findExistingEmails(shardByEmail.keySet()).forEach(free::remove);
+            return free;
+        }
+        String[] emails = shardByEmail.keySet().toArray(String[]::new);
+        Integer[] shards = new Integer[emails.length];
+        for (int i = 0; i < emails.length; i++) {
+            shards[i] = shardByEmail.get(emails[i]);
+        }
+        return new HashSet<>(userShards.write(DIRECTORY_SHARD, () -> directoryRepository.reserve(emails, shards)));
+    }
+
+    public void confirm(Collection<User> users) {
+        if (!userShards.isSharded() || users.isEmpty()) {
+            return;
+        }
+        List<User> confirmed = List.copyOf(users);
+        String[] emails = new String[confirmed.size()];
+        Integer[] shards = new Integer[confirmed.size()];
+        Long[] userIds = new Long[confirmed.size()];
+        for (int i = 0; i < confirmed.size(); i++) {
+            User user = confirmed.get(i);
+            emails[i] = user.getEmail();
+            shards[i] = userShards.shardOf(user.getId());
+            userIds[i] = user.getId();
+        }
+        userShards.write(DIRECTORY_SHARD, () -> directoryRepository.confirm(emails, shards, userIds));
+    }
+
+    // Before a shard write that takes these emails away from their users
+    public void markPending(Collection<String> emails) {
+        if (!userShards.isSharded() || emails.isEmpty()) {
+            return;
+        }
+        String[] pending = emails.toArray(String[]::new);
+        userShards.write(DIRECTORY_SHARD, () -> directoryRepository.markPending(pending));
+    }
+
+    // Before deleting these users: their emails stay pending until releaseDeleted or the reconciler settles them
+    public void markPendingForUsers(Collection<Long> userIds) {
+        if (!userShards.isSharded() || userIds.isEmpty()) {
+            return;
+        }
+        Long[] pending = userIds.toArray(Long[]::new);
+        userShards.write(DIRECTORY_SHARD, () -> directoryRepository.markPendingByUserIds(pending));
+    }
+
+    public void release(Collection<String> emails) {
+        if (!userShards.isSharded() || emails.isEmpty()) {
+            return;
+        }
+        String[] released = emails.toArray(String[]::new);
+        userShards.write(DIRECTORY_SHARD, () -> directoryRepository.release(released));
+    }
+
+    // After the shard committed the deletes; also drops entries an email change confirmed for them meanwhile
+    public void releaseDeleted(Collection<User> users) {
+        if (!userShards.isSharded() || users.isEmpty()) {
+            return;
+        }
+        String[] emails = users.stream().map(User::getEmail).toArray(String[]::new);
+        Long[] userIds = users.stream().map(User::getId).toArray(Long[]::new);
+        userShards.write(DIRECTORY_SHARD, () -> directoryRepository.releaseDeleted(emails, userIds));
+    }
+
+    public Optional<Integer> findShard(String email) {
+        return userShards.read(DIRECTORY_SHARD, () -> directoryRepository.findShardByEmail(email));
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.reconcile-interval:1m}")
+    public void reconcile() {
+        if (!userShards.isSharded()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(reservationGrace);
+        List<UserEmailDirectoryEntry> stale = userShards.read(DIRECTORY_SHARD,
+                () -> directoryRepository.findStalePending(cutoff, RECONCILE_BATCH_SIZE));
+        for (UserEmailDirectoryEntry entry : stale) {
+            Optional<User> owner = userShards.read(entry.getShard(),
+                    () -> userRepository.findByEmail(entry.getEmail()));
+            if (owner.isPresent()) {
+                confirm(List.of(owner.get()));
+            } else {
+                userShards.write(DIRECTORY_SHARD,
+                        () -> directoryRepository.deleteStale(entry.getEmail(), entry.getReservedAt()));
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.info("Reconciled {} pending email reservations older than {}", stale.size(), reservationGrace);
+        }
+    }
+}
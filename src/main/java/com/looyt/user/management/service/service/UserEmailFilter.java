@@ -0,0 +1,197 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.ReadRouting;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of live user emails, so availability checks for emails nobody has (nearly all of them
+ * at signup) are answered without the database. A yes still has to be confirmed by a query. A no is
+ * only a hint: an email another instance added since the last sync is not in the filter yet, so
+ * nothing that must be correct (lookups, uniqueness) relies on it.
+ * <p>
+ * Built by streaming every email after startup, then kept current by this instance's writes and by
+ * a scan of rows updated since the last sync, which picks up writes made by other instances within
+ * {@code app.email-filter.sync-interval}. Deletes cannot clear bits, so they are counted and the
+ * filter is rebuilt once they, or growth past its capacity, would raise the false-positive rate.
+ * Until the first build completes every email is reported as possibly existing.
+ */
+@Component
+@Slf4j
+public class UserEmailFilter {
+
+    private static final double STALE_REBUILD_RATIO = 0.1;
+
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+    private final UserCountEstimate userCountEstimate;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final Duration syncOverlap;
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    // Receives writes made while a replacement is being built
+    private volatile BloomFilter building;
+    private volatile LocalDateTime syncedUpTo;
+    private final AtomicLong removedSinceBuild = new AtomicLong();
+
+    public UserEmailFilter(UserRepository userRepository,
+                           UserShards userShards,
+                           UserCountEstimate userCountEstimate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.email-filter.enabled:true}") boolean enabled,
+                           @Value("${app.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${app.email-filter.min-capacity:100000}") long minCapacity,
+                           @Value("${app.sync.settle-time:5s}") Duration syncOverlap) {
+        this.userRepository = userRepository;
+        this.userShards = userShards;
+        this.userCountEstimate = userCountEstimate;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.syncOverlap = syncOverlap;
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.truePositives = lookupCounter(meterRegistry, "true_positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        filterGauge(meterRegistry, "users.email_filter.memory", "Bytes held by the email filter", "bytes",
+                BloomFilter::sizeInBytes);
+        filterGauge(meterRegistry, "users.email_filter.expected_false_positive_rate",
+                "False-positive rate expected from the filter's current load", null,
+                BloomFilter::expectedFalsePositiveRate);
+        Gauge.builder("users.email_filter.false_positive_rate", this, UserEmailFilter::observedFalsePositiveRate)
+                .description("Share of lookups for absent emails that the filter could not rule out")
+                .register(meterRegistry);
+    }
+
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(email)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    // Outcome of the database check that followed possible positives
+    public void recordPositives(long existed, long absent) {
+        if (filter != null) {
+            truePositives.increment(existed);
+            falsePositives.increment(absent);
+        }
+    }
+
+    public void add(String email) {
+        // building before filter: a rebuild publishes the new filter before it stops collecting writes
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(email);
+        }
+        BloomFilter current = filter;
+        if (current != null && current != next) {
+            current.add(email);
+        }
+    }
+
+    public void remove(String email) {
+        removedSinceBuild.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long capacity = Math.max(minCapacity, userCountEstimate.get() * 2);
+        BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+        LocalDateTime started = LocalDateTime.now();
+        building = next;
+        try {
+            long scanned = userShards.readAll(() -> ReadRouting.onPrimary(() -> {
+                long count = 0;
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        next.add(email);
+                        count++;
+                    }
+                }
+                return count;
+            })).stream().mapToLong(Long::longValue).sum();
+            filter = next;
+            removedSinceBuild.set(0);
+            syncedUpTo = started;
+            log.info("Built email filter from {} users -capacity: {}, size: {} bytes",
+                    scanned, capacity, next.sizeInBytes());
+        } catch (RuntimeException e) {
+            // The previous filter, or none, stays in use; every email falls back to the database
+            log.warn("Could not build the email filter", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-filter.sync-interval:1s}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        if (current.added() > current.capacity()
+                || removedSinceBuild.get() > current.added() * STALE_REBUILD_RATIO) {
+            rebuild();
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Overlaps the previous scan so rows committed late or stamped by a skewed clock are not missed
+        LocalDateTime since = syncedUpTo.minus(syncOverlap);
+        List<List<String>> updated = userShards.readAll(() ->
+                ReadRouting.onPrimary(() -> userRepository.findEmailsUpdatedSince(since)));
+        updated.forEach(emails -> emails.forEach(current::add));
+        syncedUpTo = now;
+    }
+
+    private double observedFalsePositiveRate() {
+        double absent = falsePositives.count() + negatives.count();
+        return absent == 0 ? 0 : falsePositives.count() / absent;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.email_filter.lookups")
+                .description("Email existence checks by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void filterGauge(MeterRegistry meterRegistry, String name, String description, String baseUnit,
+                             ToDoubleFunction<BloomFilter> value) {
+        Gauge.builder(name, this, emailFilter -> {
+                    BloomFilter current = emailFilter.filter;
+                    return current == null ? 0 : value.applyAsDouble(current);
+                })
+                .description(description)
+                .baseUnit(baseUnit)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface UserEventService {
+    public List<UserEventResponse> getEventsSince(long since, int limit);
+    public SseEmitter subscribe(Long since);
+}
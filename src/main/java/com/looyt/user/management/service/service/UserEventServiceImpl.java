@@ -0,0 +1,81 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.entity.UserEvent;
+import com.looyt.user.management.service.event.SseUserEventSink;
+import com.looyt.user.management.service.event.UserEventPublisher;
+import com.looyt.user.management.service.exception.ValidationException;
+import com.looyt.user.management.service.model.response.UserEventResponse;
+import com.looyt.user.management.service.repository.UserEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserEventServiceImpl implements UserEventService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final UserEventRepository userEventRepository;
+    private final SseUserEventSink sseUserEventSink;
+    private final UserShards userShards;
+
+    @Value("${app.events.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserEventResponse> getEventsSince(long since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        log.info("Fetching user events since event id: {}, limit: {}", since, limit);
+        // Sequence numbers are global across shards, but each shard commits its batches on its own:
+        // above shard 0's committed mark a later shard's events may be visible before an earlier one's,
+        // and a client moving past them would never see the gap. Read the mark first.
+        long upTo = userShards.isSharded()
+                ? userShards.read(0, userEventRepository::findCommittedSequenceNumber)
+                : Long.MAX_VALUE;
+        List<UserEvent> events = UserShards.mergeSorted(userShards.readAll(
+                        () -> userEventRepository.findBySequenceNumberGreaterThanAndSequenceNumberLessThanEqualOrderBySequenceNumberAsc(
+                                since, upTo, Limit.of(limit))),
+                Comparator.comparing(UserEvent::getSequenceNumber), limit);
+        return events.stream()
+                .map(UserEventPublisher::toResponse)
+                .toList();
+    }
+
+    @Override
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        // Register before replaying so nothing published meanwhile is lost; clients dedupe by event id
+        sseUserEventSink.register(emitter);
+        if (since != null) {
+            try {
+                List<UserEventResponse> backlog;
+                long position = since;
+                do {
+                    backlog = getEventsSince(position, MAX_LIMIT);
+                    SseUserEventSink.send(emitter, backlog);
+                    if (!backlog.isEmpty()) {
+                        position = backlog.get(backlog.size() - 1).getEventId();
+                    }
+                } while (backlog.size() == MAX_LIMIT);
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }
+        return emitter;
+    }
+}
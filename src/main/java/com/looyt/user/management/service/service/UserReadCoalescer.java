@@ -0,0 +1,71 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.ReadRouting;
+import com.looyt.user.management.service.model.CountMode;
+import com.looyt.user.management.service.model.response.PagedResponse;
+import com.looyt.user.management.service.model.response.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single-flight front for the hottest reads: concurrent requests for the same user id, or the same
+ * page, sort and count mode, share one database query and its result. A request that arrives while
+ * the query runs gets its result without taking a connection, but may see data read just before its
+ * own arrival.
+ */
+@Component
+public class UserReadCoalescer {
+
+    private final UserService userService;
+    private final SingleFlight<Long, UserResponse> usersById = new SingleFlight<>();
+    private final SingleFlight<PageKey, PagedResponse<UserResponse>> userPages = new SingleFlight<>();
+    private final Counter byIdJoined;
+    private final Counter pagesJoined;
+
+    public UserReadCoalescer(UserService userService, MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.byIdJoined = joinedCounter(meterRegistry, "getUserById");
+        this.pagesJoined = joinedCounter(meterRegistry, "getAllUsers");
+        inFlightGauge(meterRegistry, "getUserById", usersById);
+        inFlightGauge(meterRegistry, "getAllUsers", userPages);
+    }
+
+    public CompletableFuture<UserResponse> getUserById(Long id) {
+        return joined(usersById.execute(id, () -> userService.getUserById(id)), byIdJoined);
+    }
+
+    public CompletableFuture<PagedResponse<UserResponse>> getAllUsers(Pageable pageable, CountMode countMode) {
+        // A client pinned to the primary after a write must not share a replica read
+        PageKey key = new PageKey(pageable, countMode, ReadRouting.isPrimaryForced());
+        return joined(userPages.execute(key, () -> userService.getAllUsers(pageable, countMode)), pagesJoined);
+    }
+
+    private static <V> CompletableFuture<V> joined(SingleFlight.Call<V> call, Counter joined) {
+        if (!call.leader()) {
+            joined.increment();
+        }
+        return call.result();
+    }
+
+    private static Counter joinedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("users.single_flight.joined")
+                .description("Reads answered by another request's in-flight query")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static void inFlightGauge(MeterRegistry meterRegistry, String operation, SingleFlight<?, ?> flights) {
+        Gauge.builder("users.single_flight.in_flight", flights, SingleFlight::inFlight)
+                .description("Distinct queries currently being shared")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private record PageKey(Pageable pageable, CountMode countMode, boolean primary) {
+    }
+}
@@ -1,16 +1,42 @@
 package com.looyt.user.management.service.service;
 
+import com.looyt.user.management.service.model.CountMode;
+import com.looyt.user.management.service.model.ExportFormat;
 import com.looyt.user.management.service.model.request.CreateUserRequest;
 import com.looyt.user.management.service.model.request.UpdateUserRequest;
+import com.looyt.user.management.service.model.request.UserSearchCriteria;
+import com.looyt.user.management.service.model.response.BatchResponse;
+import com.looyt.user.management.service.model.response.EmailAvailabilityResponse;
 import com.looyt.user.management.service.model.response.PagedResponse;
+import com.looyt.user.management.service.model.response.UserChangeResponse;
 import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.repository.UserVersion;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 public interface UserService {
     public UserResponse createUser(CreateUserRequest createUserRequest);
     public UserResponse getUserById(Long id);
-    public PagedResponse<UserResponse> getAllUsers(Pageable pageable);
-    public UserResponse updateUser(UpdateUserRequest updateUserRequest);
+    public UserVersion getUserVersion(Long id);
+    public UserResponse getUserByEmail(String email);
+    public BatchResponse getUsersByIds(List<Long> ids);
+    public EmailAvailabilityResponse checkEmailAvailability(String email);
+    public PagedResponse<UserResponse> getAllUsers(Pageable pageable, CountMode countMode);
+    public PagedResponse<UserResponse> getUsersByCursor(String cursor, int size, String sortBy,
+                                                        Sort.Direction direction, boolean includeTotal);
+    public PagedResponse<UserResponse> searchUsers(UserSearchCriteria criteria, String cursor, int size,
+                                                   String sortBy, Sort.Direction direction, boolean includeTotal);
+    public PagedResponse<UserChangeResponse> getChangesSince(LocalDateTime since, String cursor, int size);
+    public UserResponse updateUser(UpdateUserRequest updateUserRequest, Long expectedVersion);
     public void deleteUser(Long id);
+    public BatchResponse createUsers(List<CreateUserRequest> requests);
+    public BatchResponse updateUsers(List<UpdateUserRequest> requests);
+    public BatchResponse deleteUsers(List<Long> ids);
+    public void exportUsers(ExportFormat format, OutputStream outputStream) throws IOException;
 }
\ No newline at end of file
@@ -1,47 +1,152 @@
 package com.looyt.user.management.service.service;
 
+import com.looyt.user.management.service.config.CacheConfig;
+import com.looyt.user.management.service.datasource.ReadRouting;
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.event.UserEventRecorder;
+import com.looyt.user.management.service.id.IdGenerators;
+import com.looyt.user.management.service.model.CountMode;
+import com.looyt.user.management.service.model.ExportFormat;
+import com.looyt.user.management.service.model.SearchMatch;
+import com.looyt.user.management.service.model.UserChangeType;
+import com.looyt.user.management.service.model.UserEventType;
 import com.looyt.user.management.service.model.request.CreateUserRequest;
 import com.looyt.user.management.service.model.request.UpdateUserRequest;
+import com.looyt.user.management.service.model.request.UserSearchCriteria;
+import com.looyt.user.management.service.model.response.BatchItemResult;
+import com.looyt.user.management.service.model.response.BatchResponse;
+import com.looyt.user.management.service.model.response.EmailAvailabilityResponse;
 import com.looyt.user.management.service.model.response.PagedResponse;
+import com.looyt.user.management.service.model.response.UserChangeResponse;
 import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.exception.BusinessException;
 import com.looyt.user.management.service.exception.DuplicateEmailException;
+import com.looyt.user.management.service.exception.PreconditionFailedException;
+import com.looyt.user.management.service.mapper.UserJsonWriter;
 import com.looyt.user.management.service.mapper.UserMapper;
 import com.looyt.user.management.service.repository.UserRepository;
 import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.entity.UserTombstone;
 import com.looyt.user.management.service.exception.UserNotFoundException;
+import com.looyt.user.management.service.exception.ValidationException;
+import com.looyt.user.management.service.repository.UserSpecifications;
+import com.looyt.user.management.service.repository.UserTombstoneRepository;
+import com.looyt.user.management.service.repository.UserVersion;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    private static final String CHANGE_SORT_KEY = "updatedAt";
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+    private static final LocalDateTime CHANGE_FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final UserRepository userRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
     private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UserEventRecorder userEventRecorder;
+    private final UserCountEstimate userCountEstimate;
+    private final UserShards userShards;
+    private final UserEmailDirectory userEmailDirectory;
+    private final UserEmailFilter userEmailFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.batch.max-lookup-size:500}")
+    private int maxLookupSize;
+
+    @Value("${app.export.flush-interval:1000}")
+    private int exportFlushInterval;
+
+    @Value("${app.sync.max-page-size:1000}")
+    private int maxChangePageSize;
+
+    @Value("${app.sync.settle-time:5s}")
+    private Duration changeSettleTime;
 
     @Override
     @Transactional
     public UserResponse createUser(CreateUserRequest createUserRequest) {
         log.info("Starting user creation process for email: {}", createUserRequest.getEmail());
 
-        if (userRepository.existsByEmail(createUserRequest.getEmail())) {
-            log.warn("User creation failed -email already exists: {}", createUserRequest.getEmail());
-            throw new DuplicateEmailException("Email already exists: " + createUserRequest.getEmail());
+        String email = createUserRequest.getEmail();
+        int shard = userShards.shardFor(email);
+        // Unsharded, the insert below is the only uniqueness check
+        if (userShards.isSharded() && userEmailDirectory.claim(Map.of(email, shard)).isEmpty()) {
+            log.warn("User creation failed -email already exists: {}", email);
+            throw new DuplicateEmailException(email);
         }
 
-        User user = userMapper.toEntity(createUserRequest);
-
-        User savedUser = userRepository.save(user);
-        log.info("User persisted to database with id: {}, username: {}",
-                savedUser.getId(), savedUser.getUsername());
+        User savedUser;
+        try {
+            savedUser = userShards.write(shard, () -> insertUser(createUserRequest, shard));
+        } catch (RuntimeException e) {
+            userEmailDirectory.release(List.of(email));
+            throw e;
+        }
+        userEmailDirectory.confirm(List.of(savedUser));
+        userEmailFilter.add(email);
 
         UserResponse response = userMapper.toResponse(savedUser);
         log.info("User creation completed successfully -id: {}, email: {}",
@@ -49,12 +154,34 @@ public class UserServiceImpl implements UserService {
         return response;
     }
 
+    private User insertUser(CreateUserRequest createUserRequest, int shard) {
+        long id = IdGenerators.installed().map(generator -> generator.nextId(shard)).orElse(0L);
+        User savedUser = userRepository.insertIfEmailAbsent(
+                        id,
+                        UserShards.baseOf(shard),
+                        createUserRequest.getUsername(),
+                        createUserRequest.getEmail(),
+                        createUserRequest.getRole().name(),
+                        createUserRequest.getPhoneNumber())
+                .orElseThrow(() -> {
+                    log.warn("User creation failed -email already exists: {}", createUserRequest.getEmail());
+                    return new DuplicateEmailException(createUserRequest.getEmail());
+                });
+        log.info("User persisted to database with id: {}, username: {}",
+                savedUser.getId(), savedUser.getUsername());
+        userEventRecorder.record(UserEventType.CREATED, savedUser);
+        return savedUser;
+    }
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, key = "#id")
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         log.info("Fetching user by id : {}", id);
 
-        User user = userRepository.findById(id)
+        // Cached results must not be populated from a lagging replica
+        User user = userShards.read(userShards.shardOf(id),
+                        () -> ReadRouting.onPrimary(() -> userRepository.findById(id)))
                 .orElseThrow(() -> {
                     log.warn("User not found with id : {}", id);
                     return new UserNotFoundException("User not found with id : " + id);
@@ -66,13 +193,118 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public PagedResponse<UserResponse> getAllUsers(Pageable pageable) {
-        log.info("Fetching users with pagination -page: {}, size: {}, sort:{} ",
+    public UserVersion getUserVersion(Long id) {
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        UserResponse cached = byId == null ? null : byId.get(id, UserResponse.class);
+        if (cached != null) {
+            return new UserVersion(cached.getVersion(),
+                    cached.getUpdatedAt() != null ? cached.getUpdatedAt() : cached.getCreatedAt());
+        }
+        // A lagging replica would answer 304 for a version the primary has already replaced
+        return userShards.read(userShards.shardOf(id),
+                        () -> ReadRouting.onPrimary(() -> userRepository.findVersionById(id)))
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#email")
+    @Transactional(readOnly = true)
+    public UserResponse getUserByEmail(String email) {
+        log.info("Fetching user by email : {}", email);
+
+        // The directory, not the placement hash, knows the shard once an email has been changed
+        Optional<User> found = userShards.isSharded()
+                ? userEmailDirectory.findShard(email)
+                        .flatMap(shard -> userShards.read(shard, () -> userRepository.findByEmail(email)))
+                : ReadRouting.onPrimary(() -> userRepository.findByEmail(email));
+        User user = found
+                .orElseThrow(() -> {
+                    log.warn("User not found with email : {}", email);
+                    return new UserNotFoundException(email);
+                });
+
+        return userMapper.toResponse(user);
+    }
+
+    // Advisory: a filter miss can be a user another instance created within the last sync interval,
+    // in which case the create that follows still answers 409
+    @Override
+    public EmailAvailabilityResponse checkEmailAvailability(String email) {
+        boolean available;
+        if (!userEmailFilter.mightExist(email)) {
+            available = true;
+        } else {
+            // Sharded, the directory also counts emails reserved by a create still in progress
+            boolean exists = userShards.isSharded()
+                    ? userEmailDirectory.findShard(email).isPresent()
+                    : ReadRouting.onPrimary(() -> userRepository.existsByEmail(email));
+            userEmailFilter.recordPositives(exists ? 1 : 0, exists ? 0 : 1);
+            available = !exists;
+        }
+        return EmailAvailabilityResponse.builder().email(email).available(available).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResponse getUsersByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > maxLookupSize) {
+            throw new ValidationException("Lookup must contain between 1 and " + maxLookupSize + " ids");
+        }
+        log.info("Fetching {} users by id", ids.size());
+
+        // Cached users are served as they are; the rest are read with one query per shard
+        Map<Long, UserResponse> found = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        for (Long id : ids) {
+            UserResponse cached = id == null || byId == null ? null : byId.get(id, UserResponse.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        groupByShard(missing, userShards::shardOf).forEach((shard, shardIds) ->
+                userShards.read(shard, () -> userRepository.findAllByIdArray(shardIds.toArray(Long[]::new)))
+                        .forEach(user -> found.put(user.getId(), userMapper.toResponse(user))));
+
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            UserResponse user = id == null ? null : found.get(id);
+            if (user != null) {
+                results[i] = BatchItemResult.builder().index(i).status(HttpStatus.OK.value()).id(id).user(user).build();
+            } else if (id == null) {
+                results[i] = failure(i, new ValidationException("id must not be null"));
+            } else {
+                results[i] = failure(i, new UserNotFoundException(id));
+                results[i].setId(id);
+            }
+        }
+
+        log.info("Batch user lookup completed -requested: {}, queried: {}, found: {}",
+                ids.size(), missing.size(), found.size());
+        return toBatchResponse(results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<UserResponse> getAllUsers(Pageable pageable, CountMode countMode) {
+        log.info("Fetching users with pagination -page: {}, size: {}, sort:{}, count: {} ",
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
-                pageable.getSort());
+                pageable.getSort(),
+                countMode);
 
-        Page<User> users = userRepository.findAll(pageable);
+        if (countMode != CountMode.EXACT) {
+            return getUserSlice(pageable, countMode);
+        }
+
+        List<UserResponse> content = timedPhase("query", () -> userShards.isSharded()
+                ? findPageAcrossShards(pageable, 0)
+                : userRepository.findAllResponsesBy(pageable));
+        Page<UserResponse> users = PageableExecutionUtils.getPage(content, pageable,
+                () -> timedPhase("count", () -> sum(userShards.readAll(userRepository::count))));
 
         log.info("Retrieved {} users on page {} of {} (total elements: {})",
                 users.getNumberOfElements(),
@@ -84,46 +316,766 @@ public class UserServiceImpl implements UserService {
             log.debug("No users found for requested page: {}", pageable.getPageNumber());
         }
 
-        List<UserResponse> userResponses = userMapper.toResponseList(users.getContent());
-
-
         return PagedResponse.<UserResponse>builder()
-                .content(userResponses)
+                .content(users.getContent())
                 .pageNumber(users.getNumber())
                 .pageSize(users.getSize())
                 .totalElements(users.getTotalElements())
                 .totalPages(users.getTotalPages())
+                .totalCount(CountMode.EXACT)
                 .last(users.isLast())
                 .build();
     }
 
+    private PagedResponse<UserResponse> getUserSlice(Pageable pageable, CountMode countMode) {
+        Slice<UserResponse> users = timedPhase("query", () -> {
+            if (!userShards.isSharded()) {
+                return userRepository.findResponseSliceBy(pageable);
+            }
+            List<UserResponse> page = findPageAcrossShards(pageable, 1);
+            boolean hasNext = page.size() > pageable.getPageSize();
+            return new SliceImpl<>(hasNext ? page.subList(0, pageable.getPageSize()) : page, pageable, hasNext);
+        });
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (countMode == CountMode.ESTIMATED) {
+            // Never report fewer rows than this page has already proven to exist
+            long seen = pageable.getOffset() + users.getNumberOfElements() + (users.hasNext() ? 1 : 0);
+            totalElements = Math.max(timedPhase("count", userCountEstimate::get), seen);
+            totalPages = (int) Math.ceil((double) totalElements / pageable.getPageSize());
+        }
+
+        log.info("Retrieved {} users on page {} (has next: {}, count: {})",
+                users.getNumberOfElements(), pageable.getPageNumber(), users.hasNext(), countMode);
+
+        return PagedResponse.<UserResponse>builder()
+                .content(users.getContent())
+                .pageNumber(users.getNumber())
+                .pageSize(users.getSize())
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .totalCount(countMode)
+                .last(!users.hasNext())
+                .build();
+    }
+
+    /**
+     * Scatter-gather for OFFSET pages: every shard returns its first offset + size (+ extra) rows and the
+     * merge drops the offset. Deep pages cost every shard the whole prefix, so CURSOR mode scales better.
+     */
+    private List<UserResponse> findPageAcrossShards(Pageable pageable, int extra) {
+        int offset = Math.toIntExact(pageable.getOffset());
+        int window = Math.addExact(offset, pageable.getPageSize() + extra);
+        Sort sort = UserSortOrder.withIdTiebreak(pageable.getSort());
+        Pageable prefix = PageRequest.of(0, window, sort);
+        List<UserResponse> merged = UserShards.mergeSorted(
+                userShards.readAll(() -> userRepository.findAllResponsesBy(prefix)),
+                UserSortOrder.comparator(sort), window);
+        return merged.subList(Math.min(offset, merged.size()), merged.size());
+    }
+
+    private static long sum(List<Long> counts) {
+        return counts.stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<UserResponse> getUsersByCursor(String cursor, int size, String sortBy,
+                                                        Sort.Direction direction, boolean includeTotal) {
+        log.info("Fetching users with cursor pagination -size: {}, sortBy: {}, direction: {}, first page: {}",
+                size, sortBy, direction, cursor == null || cursor.isBlank());
+
+        return keysetPage(UserSpecifications.unrestricted(), cursor, size, sortBy, direction, includeTotal);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<UserResponse> searchUsers(UserSearchCriteria criteria, String cursor, int size,
+                                                   String sortBy, Sort.Direction direction, boolean includeTotal) {
+        log.info("Searching users -role: {}, match: {}, created from: {}, created to: {}, size: {}",
+                criteria.getRole(), criteria.getMatch(), criteria.getCreatedFrom(), criteria.getCreatedTo(), size);
+
+        boolean prefixOnly = criteria.getMatch() == SearchMatch.PREFIX;
+        Specification<User> filter = UserSpecifications.unrestricted();
+        if (criteria.getUsername() != null && !criteria.getUsername().isBlank()) {
+            filter = filter.and(UserSpecifications.fieldMatches("username",
+                    searchTerm("username", criteria.getUsername()), prefixOnly));
+        }
+        if (criteria.getEmail() != null && !criteria.getEmail().isBlank()) {
+            filter = filter.and(UserSpecifications.fieldMatches("email",
+                    searchTerm("email", criteria.getEmail()), prefixOnly));
+        }
+        if (criteria.getRole() != null) {
+            filter = filter.and(UserSpecifications.hasRole(criteria.getRole()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            filter = filter.and(UserSpecifications.createdFrom(criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            filter = filter.and(UserSpecifications.createdBefore(criteria.getCreatedTo()));
+        }
+
+        return keysetPage(filter, cursor, size, sortBy, direction, includeTotal);
+    }
+
+    // Trigram indexes only narrow the scan for terms of at least three characters
+    private String searchTerm(String field, String term) {
+        String trimmed = term.trim();
+        if (trimmed.length() < MIN_SEARCH_TERM_LENGTH) {
+            throw new ValidationException("Search term for " + field + " must be at least "
+                    + MIN_SEARCH_TERM_LENGTH + " characters");
+        }
+        return trimmed;
+    }
+
+    private PagedResponse<UserResponse> keysetPage(Specification<User> filter, String cursor, int size, String sortBy,
+                                                   Sort.Direction direction, boolean includeTotal) {
+        if (size < 1) {
+            throw new ValidationException("Page size must be at least 1");
+        }
+        if (!UserCursor.SORT_KEYS.contains(sortBy)) {
+            throw new ValidationException("Cursor pagination supports sorting by " + UserCursor.SORT_KEYS);
+        }
+
+        Specification<User> seek = UserSpecifications.unrestricted();
+        if (cursor != null && !cursor.isBlank()) {
+            UserCursor position = UserCursor.decode(cursor);
+            if (!position.sortBy().equals(sortBy) || position.direction() != direction) {
+                throw new ValidationException("Cursor does not match the requested sort");
+            }
+            seek = UserSpecifications.seekAfter(sortBy, direction, position.typedValue(), position.id());
+        }
+
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+
+        Specification<User> page = filter.and(seek);
+        List<UserResponse> users = UserShards.mergeSorted(
+                userShards.readAll(() -> userRepository.findResponses(page, sort, size + 1)),
+                UserSortOrder.comparator(sort), size + 1);
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+
+        String nextCursor = hasNext
+                ? UserCursor.after(users.get(users.size() - 1), sortBy, direction).encode()
+                : null;
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (includeTotal) {
+            totalElements = sum(userShards.readAll(() -> userRepository.count(filter)));
+            totalPages = (int) Math.ceil((double) totalElements / size);
+        }
+
+        log.info("Retrieved {} users with keyset pagination (has next: {})", users.size(), hasNext);
+
+        return PagedResponse.<UserResponse>builder()
+                .content(users)
+                .pageSize(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .totalCount(includeTotal ? CountMode.EXACT : CountMode.OMITTED)
+                .last(!hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<UserChangeResponse> getChangesSince(LocalDateTime since, String cursor, int size) {
+        if (size < 1 || size > maxChangePageSize) {
+            throw new ValidationException("Page size must be between 1 and " + maxChangePageSize);
+        }
+
+        UserCursor position;
+        if (cursor != null && !cursor.isBlank()) {
+            position = UserCursor.decode(cursor);
+            if (!CHANGE_SORT_KEY.equals(position.sortBy()) || position.direction() != Sort.Direction.ASC) {
+                throw new ValidationException("Cursor is not a change feed cursor");
+            }
+        } else {
+            // Long.MAX_VALUE makes the seek strictly after the watermark timestamp
+            position = new UserCursor(CHANGE_SORT_KEY, Sort.Direction.ASC,
+                    (since != null ? since : CHANGE_FEED_START).toString(), Long.MAX_VALUE);
+        }
+        LocalDateTime after = (LocalDateTime) position.typedValue();
+        log.info("Fetching user changes after {} (id {}), size: {}", after, position.id(), size);
+
+        // Rows newer than the settle time may still have uncommitted neighbours with earlier timestamps
+        LocalDateTime settledBefore = LocalDateTime.now().minus(changeSettleTime);
+        Specification<User> changed = UserSpecifications.updatedBefore(settledBefore)
+                .and(UserSpecifications.seekAfter(CHANGE_SORT_KEY, Sort.Direction.ASC, after, position.id()));
+        Sort sort = Sort.by(Sort.Direction.ASC, CHANGE_SORT_KEY).and(Sort.by(Sort.Direction.ASC, "id"));
+
+        // A lagging replica would let the watermark skip rows it has not applied yet
+        List<User> users = UserShards.mergeSorted(userShards.readAll(() -> ReadRouting.onPrimary(
+                        () -> userRepository.findNextKeysetPage(changed, sort, size + 1))),
+                Comparator.comparing(User::getUpdatedAt).thenComparing(User::getId), size + 1);
+        List<UserTombstone> tombstones = UserShards.mergeSorted(userShards.readAll(() -> ReadRouting.onPrimary(
+                        () -> userTombstoneRepository.findNextPage(
+                                after, position.id(), settledBefore, PageRequest.ofSize(size + 1)))),
+                Comparator.comparing(UserTombstone::getDeletedAt).thenComparing(UserTombstone::getUserId), size + 1);
+
+        List<UserChangeResponse> changes = new ArrayList<>(size);
+        int u = 0;
+        int t = 0;
+        while (changes.size() < size && (u < users.size() || t < tombstones.size())) {
+            if (t == tombstones.size() || (u < users.size() && isBefore(users.get(u), tombstones.get(t)))) {
+                User user = users.get(u++);
+                changes.add(UserChangeResponse.builder()
+                        .type(UserChangeType.UPSERT)
+                        .id(user.getId())
+                        .changedAt(user.getUpdatedAt())
+                        .user(userMapper.toResponse(user))
+                        .build());
+            } else {
+                UserTombstone tombstone = tombstones.get(t++);
+                changes.add(UserChangeResponse.builder()
+                        .type(UserChangeType.DELETE)
+                        .id(tombstone.getUserId())
+                        .changedAt(tombstone.getDeletedAt())
+                        .build());
+            }
+        }
+        boolean hasNext = u < users.size() || t < tombstones.size();
+
+        // Always returned, even on the last page, so mirrors can store it as their watermark
+        UserChangeResponse lastChange = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+        String nextCursor = lastChange == null
+                ? position.encode()
+                : new UserCursor(CHANGE_SORT_KEY, Sort.Direction.ASC,
+                        lastChange.getChangedAt().toString(), lastChange.getId()).encode();
+
+        log.info("Retrieved {} user changes (has next: {})", changes.size(), hasNext);
+
+        return PagedResponse.<UserChangeResponse>builder()
+                .content(changes)
+                .pageSize(size)
+                .last(!hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private boolean isBefore(User user, UserTombstone tombstone) {
+        int byTime = user.getUpdatedAt().compareTo(tombstone.getDeletedAt());
+        return byTime != 0 ? byTime < 0 : user.getId() < tombstone.getUserId();
+    }
+
     @Override
-    public UserResponse updateUser(UpdateUserRequest updateUserRequest) {
+    @Transactional
+    public UserResponse updateUser(UpdateUserRequest updateUserRequest, Long expectedVersion) {
         log.info("Starting user update process for id : {}", updateUserRequest.getId());
 
-        User user = userRepository.findById(updateUserRequest.getId())
-                .orElseThrow(() -> {
-                    log.warn("Attempted to update non-existent user with id : {}", updateUserRequest.getId());
-                    return new UserNotFoundException("User not found with id : " + updateUserRequest.getId());
-                });
+        Long id = updateUserRequest.getId();
+        int shard = userShards.shardOf(id);
+        // Sharded, an email change is reserved on shard 0 before the shard write, never inside it
+        String readEmail = userShards.isSharded() && updateUserRequest.getEmail() != null
+                ? userShards.read(shard, () -> ReadRouting.onPrimary(() -> userRepository.findById(id)))
+                        .map(User::getEmail)
+                        .orElse(null)
+                : null;
+        List<String> claimedEmails = new ArrayList<>();
+        List<String> previousEmails = new ArrayList<>();
+        if (readEmail != null && !readEmail.equals(updateUserRequest.getEmail())) {
+            if (userEmailDirectory.claim(Map.of(updateUserRequest.getEmail(), shard)).isEmpty()) {
+                log.warn("User update failed -email already exists: {}", updateUserRequest.getEmail());
+                throw new DuplicateEmailException(updateUserRequest.getEmail());
+            }
+            claimedEmails.add(updateUserRequest.getEmail());
+            userEmailDirectory.markPending(List.of(readEmail));
+            previousEmails.add(readEmail);
+        }
 
-        userMapper.updateEntityFromRequest(updateUserRequest, user);
+        User updatedUser;
+        try {
+            updatedUser = userShards.write(shard, () -> {
+                User user = userRepository.findById(id)
+                        .orElseThrow(() -> {
+                            log.warn("Attempted to update non-existent user with id : {}", id);
+                            return new UserNotFoundException("User not found with id : " + id);
+                        });
 
-        user.setUpdatedAt(LocalDateTime.now());
+                if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                    log.warn("User update rejected -id: {}, expected version: {}, current version: {}",
+                            user.getId(), expectedVersion, user.getVersion());
+                    throw new PreconditionFailedException(user.getId());
+                }
+                // The reservations above were made for the email read then
+                if (readEmail != null && !readEmail.equals(user.getEmail())) {
+                    throw new ObjectOptimisticLockingFailureException(User.class, id);
+                }
 
-        User updatedUser = userRepository.save(user);
-        log.info("User updated successfully in database -id: {}, username: {}",
-                updatedUser.getId(), updatedUser.getUsername());
+                String previousEmail = user.getEmail();
+                userMapper.updateEntityFromRequest(updateUserRequest, user);
+
+                // Flushed first so the event carries the incremented version
+                User saved = userRepository.saveAndFlush(user);
+                log.info("User updated successfully in database -id: {}, username: {}",
+                        saved.getId(), saved.getUsername());
+                if (!previousEmail.equals(saved.getEmail())) {
+                    userEmailFilter.add(saved.getEmail());
+                    userEmailFilter.remove(previousEmail);
+                }
+                userEventRecorder.record(UserEventType.UPDATED, saved);
+
+                evictCachedUser(saved.getId(), previousEmail, saved.getEmail());
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // The previous email stays pending until the reconciler confirms it again
+            userEmailDirectory.release(claimedEmails);
+            throw e;
+        }
+        userEmailDirectory.confirm(claimedEmails.isEmpty() ? List.of() : List.of(updatedUser));
+        userEmailDirectory.release(previousEmails);
 
         return userMapper.toResponse(updatedUser);
 
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         log.info("Starting user delete process for id : {}", id);
 
-        userRepository.deleteById(id);
+        userEmailDirectory.markPendingForUsers(List.of(id));
+        User user = userShards.write(userShards.shardOf(id), () -> {
+            User deleted = userRepository.softDeleteById(id)
+                    .orElseThrow(() -> {
+                        log.warn("Attempted to delete non-existent user with id : {}", id);
+                        return new UserNotFoundException(id);
+                    });
+            userTombstoneRepository.save(UserTombstone.builder().userId(id).build());
+            userEventRecorder.record(UserEventType.DELETED, deleted);
+            return deleted;
+        });
+        userEmailDirectory.releaseDeleted(List.of(user));
+        userEmailFilter.remove(user.getEmail());
+        evictCachedUser(id, user.getEmail());
         log.info("User deleted successfully from database -id: {}", id);
     }
+
+    @Override
+    public BatchResponse createUsers(List<CreateUserRequest> requests) {
+        log.info("Starting batch user creation for {} items", requests.size());
+        checkBatchSize(requests);
+
+        try {
+            return transactionTemplate.execute(status -> insertBatch(requests));
+        } catch (DataIntegrityViolationException e) {
+            if (userShards.isSharded()) {
+                throw e;
+            }
+            // Unsharded, the email lookup is not a reservation, so an email inserted since then fails
+            // the whole flush on the unique index; the rows are then inserted one by one
+            log.warn("Batch user creation hit an email inserted concurrently, retrying row by row");
+            return writeRowByRow(requests, HttpStatus.CREATED, this::createUser);
+        }
+    }
+
+    private BatchResponse insertBatch(List<CreateUserRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Integer, CreateUserRequest> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String violation = firstViolation(requests.get(i));
+            if (violation != null) {
+                results[i] = failure(i, new ValidationException(violation));
+            } else {
+                candidates.put(i, requests.get(i));
+            }
+        }
+
+        Set<String> requestedEmails = candidates.values().stream()
+                .map(CreateUserRequest::getEmail)
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = new HashSet<>(requestedEmails);
+        takenEmails.removeAll(userEmailDirectory.claim(requestedEmails.stream()
+                .collect(Collectors.toMap(Function.identity(), userShards::shardFor))));
+
+        Map<Integer, User> toInsert = new LinkedHashMap<>();
+        candidates.forEach((index, request) -> {
+            if (!takenEmails.add(request.getEmail())) {
+                results[index] = failure(index, new DuplicateEmailException(request.getEmail()));
+            } else {
+                toInsert.put(index, userMapper.toEntity(request));
+            }
+        });
+
+        // If a shard fails, its reservations stay pending until the reconciler settles them
+        userEmailDirectory.confirm(saveByShard(toInsert.values(),
+                user -> userShards.shardFor(user.getEmail()), UserEventType.CREATED));
+        toInsert.values().forEach(user -> userEmailFilter.add(user.getEmail()));
+        toInsert.forEach((index, user) -> results[index] = success(index, HttpStatus.CREATED, user));
+
+        log.info("Batch user creation completed -created: {}, failed: {}",
+                toInsert.size(), requests.size() - toInsert.size());
+        return toBatchResponse(results);
+    }
+
+    @Override
+    public BatchResponse updateUsers(List<UpdateUserRequest> requests) {
+        log.info("Starting batch user update for {} items", requests.size());
+        checkBatchSize(requests);
+
+        try {
+            return transactionTemplate.execute(status -> updateBatch(requests));
+        } catch (DataIntegrityViolationException e) {
+            if (userShards.isSharded()) {
+                throw e;
+            }
+            // Same race as for creation, with an email another request moved a user to
+            log.warn("Batch user update hit an email taken concurrently, retrying row by row");
+            Set<Long> seenIds = new HashSet<>();
+            return writeRowByRow(requests, HttpStatus.OK, request -> {
+                if (!seenIds.add(request.getId())) {
+                    throw new ValidationException("User id " + request.getId() + " appears more than once in the batch");
+                }
+                try {
+                    return updateUser(request, null);
+                } catch (DataIntegrityViolationException ex) {
+                    throw new DuplicateEmailException(request.getEmail());
+                }
+            });
+        }
+    }
+
+    private BatchResponse updateBatch(List<UpdateUserRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Integer, UpdateUserRequest> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String violation = firstViolation(requests.get(i));
+            if (violation != null) {
+                results[i] = failure(i, new ValidationException(violation));
+            } else {
+                candidates.put(i, requests.get(i));
+            }
+        }
+
+        Map<Long, User> existing = findAllById(
+                candidates.values().stream().map(UpdateUserRequest::getId).collect(Collectors.toSet()));
+
+        Set<String> changedEmails = candidates.values().stream()
+                .filter(request -> request.getEmail() != null && existing.containsKey(request.getId())
+                        && !request.getEmail().equals(existing.get(request.getId()).getEmail()))
+                .map(UpdateUserRequest::getEmail)
+                .collect(Collectors.toSet());
+        Map<String, Integer> shardByChangedEmail = candidates.values().stream()
+                .filter(request -> changedEmails.contains(request.getEmail()))
+                .collect(Collectors.toMap(UpdateUserRequest::getEmail,
+                        request -> userShards.shardOf(request.getId()), (first, second) -> first));
+        Set<String> takenEmails = new HashSet<>(changedEmails);
+        takenEmails.removeAll(userEmailDirectory.claim(shardByChangedEmail));
+
+        Map<Integer, User> toUpdate = new LinkedHashMap<>();
+        List<User> movedEmails = new ArrayList<>();
+        List<String> previousEmails = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        candidates.forEach((index, request) -> {
+            User user = existing.get(request.getId());
+            if (user == null) {
+                results[index] = failure(index, new UserNotFoundException(request.getId()));
+                return;
+            }
+            if (!seenIds.add(request.getId())) {
+                results[index] = failure(index, new ValidationException(
+                        "User id " + request.getId() + " appears more than once in the batch"));
+                return;
+            }
+            if (changedEmails.contains(request.getEmail()) && !takenEmails.add(request.getEmail())) {
+                results[index] = failure(index, new DuplicateEmailException(request.getEmail()));
+                return;
+            }
+            String previousEmail = user.getEmail();
+            userMapper.updateEntityFromRequest(request, user);
+            evictCachedUser(user.getId(), previousEmail, user.getEmail());
+            if (!previousEmail.equals(user.getEmail())) {
+                movedEmails.add(user);
+                previousEmails.add(previousEmail);
+            }
+            toUpdate.put(index, user);
+        });
+
+        userEmailDirectory.markPending(previousEmails);
+        Map<Long, User> saved = saveByShard(toUpdate.values(), user -> userShards.shardOf(user.getId()),
+                UserEventType.UPDATED).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        userEmailDirectory.confirm(movedEmails);
+        userEmailDirectory.release(previousEmails);
+        movedEmails.forEach(user -> userEmailFilter.add(user.getEmail()));
+        previousEmails.forEach(userEmailFilter::remove);
+        toUpdate.forEach((index, user) -> results[index] = success(index, HttpStatus.OK, saved.get(user.getId())));
+
+        log.info("Batch user update completed -updated: {}, failed: {}",
+                toUpdate.size(), requests.size() - toUpdate.size());
+        return toBatchResponse(results);
+    }
+
+    @Override
+    @Transactional
+    public BatchResponse deleteUsers(List<Long> ids) {
+        log.info("Starting batch user delete for {} items", ids.size());
+        checkBatchSize(ids);
+
+        Map<Long, User> existing = new HashMap<>();
+        Set<Long> uniqueIds = new HashSet<>(ids);
+        userEmailDirectory.markPendingForUsers(uniqueIds);
+        groupByShard(uniqueIds, userShards::shardOf).forEach((shard, shardIds) ->
+                userShards.write(shard, () -> {
+                    List<User> deleted = userRepository.softDeleteAllById(shardIds);
+                    userTombstoneRepository.saveAll(deleted.stream()
+                            .map(user -> UserTombstone.builder().userId(user.getId()).build())
+                            .toList());
+                    userEventRecorder.recordAll(UserEventType.DELETED, deleted);
+                    return deleted;
+                }).forEach(user -> existing.put(user.getId(), user)));
+        userEmailDirectory.releaseDeleted(existing.values());
+        existing.values().forEach(user -> {
+            userEmailFilter.remove(user.getEmail());
+            evictCachedUser(user.getId(), user.getEmail());
+        });
+
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results[i] = existing.containsKey(id)
+                    ? BatchItemResult.builder().index(i).status(HttpStatus.NO_CONTENT.value()).id(id).build()
+                    : failure(i, new UserNotFoundException(id));
+        }
+
+        log.info("Batch user delete completed -deleted: {}, not found: {}",
+                existing.size(), ids.size() - existing.size());
+        return toBatchResponse(results);
+    }
+
+    // Each row in its own transaction, so a row that fails leaves the others written
+    private <T> BatchResponse writeRowByRow(List<T> requests, HttpStatus status, Function<T, UserResponse> write) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            T request = requests.get(i);
+            String violation = firstViolation(request);
+            if (violation != null) {
+                results[i] = failure(i, new ValidationException(violation));
+                continue;
+            }
+            try {
+                results[i] = success(i, status, transactionTemplate.execute(txStatus -> write.apply(request)));
+            } catch (BusinessException e) {
+                results[i] = failure(i, e);
+            }
+        }
+        return toBatchResponse(results);
+    }
+
+    private Map<Long, User> findAllById(Collection<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        groupByShard(ids, userShards::shardOf).forEach((shard, shardIds) ->
+                userShards.read(shard, () -> userRepository.findAllById(shardIds))
+                        .forEach(user -> users.put(user.getId(), user)));
+        return users;
+    }
+
+    // One transaction per shard; shards that committed stay committed if a later one fails
+    private List<User> saveByShard(Collection<User> users, Function<User, Integer> shardOf, UserEventType type) {
+        List<User> saved = new ArrayList<>(users.size());
+        groupByShard(users, shardOf).forEach((shard, shardUsers) -> saved.addAll(userShards.write(shard, () -> {
+            List<User> shardSaved = userRepository.saveAll(shardUsers);
+            userRepository.flush();
+            userEventRecorder.recordAll(type, shardSaved);
+            return shardSaved;
+        })));
+        return saved;
+    }
+
+    private static <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, Integer> shardOf) {
+        return items.stream().collect(Collectors.groupingBy(shardOf, TreeMap::new, Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(ExportFormat format, OutputStream outputStream) throws IOException {
+        log.info("Starting user export in {} format", format);
+
+        long exported = format == ExportFormat.CSV ? writeCsv(outputStream) : writeNdjson(outputStream);
+
+        log.info("User export completed -format: {}, rows: {}", format, exported);
+    }
+
+    /**
+     * Streams every shard in turn. Ids carry their shard in the high bits, so shard order followed by
+     * id order within each shard is still global id order.
+     */
+    private long exportShards(ShardExporter exporter) throws IOException {
+        long count = 0;
+        try {
+            for (int shard = 0; shard < userShards.count(); shard++) {
+                long offset = count;
+                count += userShards.read(shard, () -> {
+                    try {
+                        return exporter.export(offset);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    // Writes one shard's rows, numbered from offset + 1, and returns how many it wrote
+    @FunctionalInterface
+    private interface ShardExporter {
+        long export(long offset) throws IOException;
+    }
+
+    private long forEachExportedUser(ExportRowWriter rowWriter) throws IOException {
+        return exportShards(offset -> {
+            long written = 0;
+            try (Stream<UserResponse> users = userRepository.streamAllResponsesOrderById()) {
+                for (UserResponse user : (Iterable<UserResponse>) users::iterator) {
+                    rowWriter.write(user, offset + ++written);
+                }
+            }
+            return written;
+        });
+    }
+
+    @FunctionalInterface
+    private interface ExportRowWriter {
+        void write(UserResponse user, long rowNumber) throws IOException;
+    }
+
+    // Rows go from the JDBC cursor to the generator without being mapped to UserResponse
+    private long writeNdjson(OutputStream outputStream) throws IOException {
+        UserJsonWriter userJsonWriter = new UserJsonWriter();
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(NDJSON_SEPARATOR);
+            return exportShards(offset -> userRepository.forEachResponseRow((row, rowNumber) -> {
+                try {
+                    userJsonWriter.writeRow(generator, row);
+                    if ((offset + rowNumber) % exportFlushInterval == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+    }
+
+    private long writeCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,username,email,phoneNumber,role,createdAt,updatedAt\n");
+        long count = forEachExportedUser((response, rowNumber) -> {
+            writer.write(String.valueOf(response.getId()));
+            writer.write(',');
+            writeCsvField(writer, response.getUsername());
+            writer.write(',');
+            writeCsvField(writer, response.getEmail());
+            writer.write(',');
+            writeCsvField(writer, response.getPhoneNumber());
+            writer.write(',');
+            writeCsvField(writer, response.getRole() == null ? null : response.getRole().name());
+            writer.write(',');
+            writeCsvField(writer, response.getCreatedAt() == null ? null : response.getCreatedAt().toString());
+            writer.write(',');
+            writeCsvField(writer, response.getUpdatedAt() == null ? null : response.getUpdatedAt().toString());
+            writer.write('\n');
+            if (rowNumber % exportFlushInterval == 0) {
+                writer.flush();
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private <T> T timedPhase(String phase, Supplier<T> work) {
+        return Timer.builder("users.list")
+                .description("Time spent in each phase of listing users")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(work);
+    }
+
+    private void checkBatchSize(Collection<?> items) {
+        if (items.isEmpty() || items.size() > maxBatchSize) {
+            throw new ValidationException("Batch must contain between 1 and " + maxBatchSize + " items");
+        }
+    }
+
+    private String firstViolation(Object request) {
+        if (request == null) {
+            return "Batch item must not be null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<Object> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private BatchItemResult success(int index, HttpStatus status, User user) {
+        return success(index, status, userMapper.toResponse(user));
+    }
+
+    private BatchItemResult success(int index, HttpStatus status, UserResponse user) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(status.value())
+                .id(user.getId())
+                .user(user)
+                .build();
+    }
+
+    private BatchItemResult failure(int index, BusinessException ex) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(ex.getHttpStatus().value())
+                .errorCode(ex.getClass().getSimpleName().replace("Exception", "").toUpperCase())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    private BatchResponse toBatchResponse(BatchItemResult[] results) {
+        List<BatchItemResult> items = List.of(results);
+        int failed = (int) items.stream().filter(result -> result.getErrorCode() != null).count();
+        return BatchResponse.builder()
+                .total(items.size())
+                .succeeded(items.size() - failed)
+                .failed(failed)
+                .results(items)
+                .build();
+    }
+
+    private void evictCachedUser(Long id, String... emails) {
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        if (byId != null) {
+            byId.evict(id);
+        }
+        Cache byEmail = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        if (byEmail != null) {
+            for (String email : emails) {
+                byEmail.evict(email);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.exception.ValidationException;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * In-memory equivalent of a users ORDER BY, used to merge per-shard pages. Strings compare by code
+ * point, which agrees with PostgreSQL only on databases using the C collation.
+ */
+final class UserSortOrder {
+
+    private UserSortOrder() {
+    }
+
+    // Shard pages must be cut at the same (key, id) boundary the merge uses
+    static Sort withIdTiebreak(Sort sort) {
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    static Comparator<UserResponse> comparator(Sort sort) {
+        Comparator<UserResponse> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<UserResponse> next = Comparator.comparing(key(order.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            // PostgreSQL sorts nulls last ascending and first descending, which is exactly the reverse
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? Comparator.comparing(UserResponse::getId) : comparator;
+    }
+
+    private static Function<UserResponse, Comparable<Object>> key(String property) {
+        Function<UserResponse, ?> key = switch (property) {
+            case "id" -> UserResponse::getId;
+            case "username" -> UserResponse::getUsername;
+            case "email" -> UserResponse::getEmail;
+            case "phoneNumber" -> UserResponse::getPhoneNumber;
+            // Stored as text, so ordered by name rather than declaration order
+            case "role" -> user -> user.getRole() == null ? null : user.getRole().name();
+            case "createdAt" -> UserResponse::getCreatedAt;
+            case "updatedAt" -> UserResponse::getUpdatedAt;
+            case "version" -> UserResponse::getVersion;
+            default -> throw new ValidationException("Unsupported sort field: " + property);
+        };
+        @SuppressWarnings("unchecked")
+        Function<UserResponse, Comparable<Object>> comparable = (Function<UserResponse, Comparable<Object>>) key;
+        return comparable;
+    }
+}
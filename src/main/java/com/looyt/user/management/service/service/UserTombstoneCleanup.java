@@ -0,0 +1,45 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.repository.UserTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drops tombstones past the sync retention window. Mirrors that fall further behind than the
+ * window must re-seed from the export endpoint.
+ */
+@Component
+@Slf4j
+public class UserTombstoneCleanup {
+
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final UserShards userShards;
+    private final Duration retention;
+
+    public UserTombstoneCleanup(UserTombstoneRepository userTombstoneRepository,
+                                UserShards userShards,
+                                @Value("${app.sync.tombstone-retention:30d}") Duration retention) {
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.userShards = userShards;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync.cleanup-interval:1h}")
+    @Transactional
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted = userShards.writeAll(() -> userTombstoneRepository.deleteDeletedBefore(cutoff)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (deleted > 0) {
+            log.info("Deleted {} user tombstones older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.looyt.user.management.service.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.Principal;
+
+/**
+ * Who a request comes from, for per-client rate limits and read-your-writes pinning: the authenticated
+ * principal, otherwise the {@value #CLIENT_ID_HEADER} header when {@value #TRUST_HEADER_PROPERTY} is on,
+ * otherwise the remote address. Only trust the header behind a gateway that authenticates callers and
+ * sets it itself; any caller can send a fresh value with every request.
+ */
+public final class ClientIdentity {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final String TRUST_HEADER_PROPERTY = "app.client-identity.trust-header";
+
+    private ClientIdentity() {
+    }
+
+    public static String resolve(HttpServletRequest request, boolean trustClientIdHeader) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        if (trustClientIdHeader) {
+            String clientId = request.getHeader(CLIENT_ID_HEADER);
+            if (clientId != null && !clientId.isBlank()) {
+                return "client:" + clientId;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,244 @@
+package com.looyt.user.management.service.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.user.management.service.config.CacheConfig;
+import com.looyt.user.management.service.model.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most as many concurrent API requests as there are datasource connections. Requests
+ * that cannot get a permit within {@code app.admission.max-wait} are rejected with 503 instead of
+ * queueing on the Hikari pool until its connection timeout.
+ * <p>
+ * Exports hold their connection for the whole stream, so besides a shared permit each takes one of
+ * {@code app.admission.export-max-concurrent} export permits, capping how many of the connections
+ * they can hold at once without setting any aside while no export runs. Single-user reads the cache
+ * will answer take no permit at all.
+ */
+@Component
+@Order(DatabaseAdmissionFilter.ORDER)
+@Slf4j
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseAdmissionFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    /**
+     * Request attribute set by handlers whose async result comes from another request's query.
+     */
+    public static final String WAITING_WITHOUT_CONNECTION =
+            DatabaseAdmissionFilter.class.getName() + ".WAITING_WITHOUT_CONNECTION";
+
+    private static final String API_PREFIX = "/v1/api/";
+    private static final String EVENT_STREAM_PATH = "/v1/api/users/events/stream";
+    private static final String EXPORT_PATH = "/v1/api/users/export";
+    private static final String USER_PATH_PREFIX = "/v1/api/users/";
+    private static final String BY_EMAIL_PATH = "/v1/api/users/by-email";
+    private static final int MAX_ID_DIGITS = 19;
+
+    private final Semaphore permits;
+    private final Semaphore exportPermits;
+    private final CacheManager cacheManager;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public DatabaseAdmissionFilter(
+            @Value("${app.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.admission.max-wait:50ms}") Duration maxWait,
+            @Value("${app.admission.export-max-concurrent:2}") int exportMaxConcurrent,
+            @Value("${app.admission.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.exportPermits = new Semaphore(exportMaxConcurrent, true);
+        this.cacheManager = cacheManager;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("admission.rejected")
+                .description("Requests rejected because all database permits were in use")
+                .register(meterRegistry);
+        meterRegistry.gauge("admission.available.permits", permits, Semaphore::availablePermits);
+        meterRegistry.gauge("admission.export.available.permits", exportPermits, Semaphore::availablePermits);
+        log.info("Database admission limiter enabled with {} permits, at most {} of them for exports",
+                maxConcurrent, exportMaxConcurrent);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // Event streams stay open for minutes but only touch the database while replaying
+        return !uri.startsWith(API_PREFIX) || uri.startsWith(EVENT_STREAM_PATH);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isCacheHit(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // The export cap is taken first, so exports queued behind it do not hold shared permits
+        List<Semaphore> pools = EXPORT_PATH.equals(request.getRequestURI())
+                ? List.of(exportPermits, permits)
+                : List.of(permits);
+        if (!acquireAll(pools)) {
+            rejected.increment();
+            log.warn("Rejecting {} {} -no database permit available", request.getMethod(), request.getRequestURI());
+            writeRejection(request, response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && request.getAttribute(WAITING_WITHOUT_CONNECTION) == null) {
+                // Streaming responses keep using their connection after this thread returns
+                request.getAsyncContext().addListener(new ReleasingListener(pools, released));
+            } else {
+                release(pools, released);
+            }
+        }
+    }
+
+    // A read evicted between this check and the handler runs one query without a permit
+    private boolean isCacheHit(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return false;
+        }
+        String uri = request.getRequestURI();
+        if (BY_EMAIL_PATH.equals(uri)) {
+            String email = request.getParameter("email");
+            return email != null && isCached(CacheConfig.USERS_BY_EMAIL, email);
+        }
+        if (!uri.startsWith(USER_PATH_PREFIX)) {
+            return false;
+        }
+        String id = uri.substring(USER_PATH_PREFIX.length());
+        if (id.isEmpty() || id.length() > MAX_ID_DIGITS || !id.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        try {
+            return isCached(CacheConfig.USERS_BY_ID, Long.valueOf(id));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Peeks without recording a hit or miss, so the handler's own lookup is the only one in the stats
+    @SuppressWarnings("unchecked")
+    private boolean isCached(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?>)) {
+            return false;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        return caffeine.policy().getIfPresentQuietly(key) != null;
+    }
+
+    // All permits within one max-wait, or none
+    private boolean acquireAll(List<Semaphore> pools) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        for (int i = 0; i < pools.size(); i++) {
+            boolean acquired;
+            try {
+                acquired = pools.get(i).tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                pools.subList(0, i).forEach(Semaphore::release);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void release(List<Semaphore> pools, AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            pools.forEach(Semaphore::release);
+        }
+    }
+
+    private void writeRejection(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .message("Service is at capacity, retry later")
+                .errorCode("SERVICE_UNAVAILABLE")
+                .path(request.getRequestURI())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static final class ReleasingListener implements AsyncListener {
+        private final List<Semaphore> pools;
+        private final AtomicBoolean released;
+
+        private ReleasingListener(List<Semaphore> pools, AtomicBoolean released) {
+            this.pools = pools;
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(pools, released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(pools, released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(pools, released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.looyt.user.management.service.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.looyt.user.management.service.datasource.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Pins a client's reads to the primary for a short window after it successfully wrote, so it
+ * always sees its own changes even if the replicas lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final Cache<String, Boolean> recentWriters;
+    private final boolean trustClientIdHeader;
+
+    public ReadYourWritesFilter(Duration window, boolean trustClientIdHeader) {
+        this.trustClientIdHeader = trustClientIdHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/v1/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = ClientIdentity.resolve(request, trustClientIdHeader);
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        if (write || recentWriters.getIfPresent(client) != null) {
+            ReadRouting.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.clear();
+            if (write && response.getStatus() < 400) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+}
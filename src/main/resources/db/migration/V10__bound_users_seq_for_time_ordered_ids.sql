@@ -0,0 +1,5 @@
+-- Existing rows keep their sequence ids. Time-ordered ids (app.id.generator=snowflake) start at 2^53,
+-- above anything the sequence can produce, so old and new rows never collide and new rows sort after
+-- old ones. users_seq stays as the column default and as the fallback generator, but must not grow
+-- into the shard bits (UserShards.SHARD_SHIFT = 40).
+ALTER SEQUENCE users_seq MAXVALUE 1099511627775;
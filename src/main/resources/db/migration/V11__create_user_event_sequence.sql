@@ -0,0 +1,12 @@
+-- Highest event sequence number assigned so far, kept apart from user_events so numbering never
+-- restarts once the retention cleanup has deleted every published event.
+-- Sharded, each shard advances its own row with the batches it publishes; the publisher continues
+-- after the highest row across all shards.
+CREATE TABLE IF NOT EXISTS user_event_sequence (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    last_sequence_number BIGINT NOT NULL
+);
+
+INSERT INTO user_event_sequence (id, last_sequence_number)
+SELECT 1, COALESCE(MAX(sequence_number), 0) FROM user_events
+ON CONFLICT (id) DO NOTHING;
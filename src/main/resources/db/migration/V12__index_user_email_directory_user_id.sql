@@ -0,0 +1,2 @@
+-- Deletes mark a user's directory entries pending by user id before the shard write.
+CREATE INDEX IF NOT EXISTS idx_user_email_directory_user_id ON user_email_directory (user_id);
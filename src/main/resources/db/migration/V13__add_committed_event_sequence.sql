@@ -0,0 +1,6 @@
+-- Sharded, each shard commits its own publish batches, so a reader scanning every shard can see a later
+-- shard's events before an earlier shard's. Shard 0's committed mark only advances once every shard's
+-- batches have committed, and readers return nothing above it. Unsharded it is not used.
+ALTER TABLE user_event_sequence ADD COLUMN IF NOT EXISTS committed_sequence_number BIGINT NOT NULL DEFAULT 0;
+
+UPDATE user_event_sequence SET committed_sequence_number = last_sequence_number;
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_users_username_id ON users (username, id);
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
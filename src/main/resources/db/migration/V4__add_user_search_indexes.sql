@@ -0,0 +1,7 @@
+-- Substring/prefix search on username and email uses lower(column) LIKE, served by trigram GIN indexes.
+-- created_at range scans use idx_users_created_at_id from V2.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id);
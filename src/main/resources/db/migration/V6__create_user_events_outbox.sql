@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS user_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS user_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('user_events_seq'),
+    sequence_number BIGINT UNIQUE,
+    user_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_events_unpublished ON user_events (created_at, id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_user_events_published_at ON user_events (published_at);
@@ -0,0 +1,12 @@
+UPDATE users SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE users ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE users ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_users_updated_at_id ON users (updated_at, id);
+
+CREATE TABLE IF NOT EXISTS user_tombstones (
+    user_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_tombstones_deleted_at_user_id ON user_tombstones (deleted_at, user_id);
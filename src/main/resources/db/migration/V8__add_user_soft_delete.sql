@@ -0,0 +1,22 @@
+-- Deletes mark rows with deleted_at; a scheduled job purges them after the retention window.
+-- Lookup indexes only cover live rows, which is what every application query filters on.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- Emails of deleted users can be registered again
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_live ON users (email) WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_users_username_id;
+CREATE INDEX idx_users_username_id ON users (username, id) WHERE deleted_at IS NULL;
+DROP INDEX IF EXISTS idx_users_created_at_id;
+CREATE INDEX idx_users_created_at_id ON users (created_at, id) WHERE deleted_at IS NULL;
+DROP INDEX IF EXISTS idx_users_updated_at_id;
+CREATE INDEX idx_users_updated_at_id ON users (updated_at, id) WHERE deleted_at IS NULL;
+DROP INDEX IF EXISTS idx_users_role_id;
+CREATE INDEX idx_users_role_id ON users (role, id) WHERE deleted_at IS NULL;
+DROP INDEX IF EXISTS idx_users_username_trgm;
+CREATE INDEX idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops) WHERE deleted_at IS NULL;
+DROP INDEX IF EXISTS idx_users_email_trgm;
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops) WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,12 @@
+-- Email -> shard lookup that keeps email uniqueness global once users are spread over several databases.
+-- Only shard 0's copy is used; the table exists everywhere because every shard runs the same migrations.
+-- A row without user_id is pending: the create, email change or delete that owns it has not finished,
+-- and the reconciler settles it against the shard once it is older than the reservation grace period.
+CREATE TABLE IF NOT EXISTS user_email_directory (
+    email VARCHAR(255) PRIMARY KEY,
+    shard INTEGER NOT NULL,
+    user_id BIGINT,
+    reserved_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_email_directory_pending ON user_email_directory (reserved_at) WHERE user_id IS NULL;
@@ -0,0 +1,103 @@
+package com.looyt.user.management.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Time-ordered ids driven by an explicit clock.
+ */
+class SnowflakeIdGeneratorTest {
+
+	private static final long START = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000;
+	// Largest integer a JavaScript number holds exactly
+	private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+	private final AtomicLong clock = new AtomicLong(START);
+
+	@Test
+	void idsIncreaseWithinAndAcrossMilliseconds() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 1, clock::get);
+
+		long previous = 0;
+		for (int i = 0; i < 1_000; i++) {
+			if (i % 10 == 0) {
+				clock.incrementAndGet();
+			}
+			long id = generator.nextId(0);
+			assertThat(id).isGreaterThan(previous);
+			previous = id;
+		}
+	}
+
+	@Test
+	void clockRollbackKeepsIdsIncreasing() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 1, clock::get);
+		long beforeRollback = generator.nextId(0);
+
+		clock.addAndGet(-5_000);
+		long afterRollback = generator.nextId(0);
+
+		assertThat(afterRollback).isGreaterThan(beforeRollback);
+		assertThat(SnowflakeIdGenerator.timestampOf(afterRollback))
+				.isEqualTo(SnowflakeIdGenerator.timestampOf(beforeRollback));
+	}
+
+	@Test
+	void fullSequenceCarriesIntoTheNextMillisecond() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 1, clock::get);
+
+		Set<Long> ids = new HashSet<>();
+		long last = 0;
+		// 64 sequence numbers per millisecond, then one more
+		for (int i = 0; i < 65; i++) {
+			last = generator.nextId(0);
+			ids.add(last);
+		}
+
+		assertThat(ids).hasSize(65);
+		assertThat(SnowflakeIdGenerator.timestampOf(last).toEpochMilli()).isEqualTo(START + 1);
+		// The clock catching up does not hand out the carried millisecond again
+		clock.incrementAndGet();
+		assertThat(generator.nextId(0)).isGreaterThan(last);
+	}
+
+	@Test
+	void shardIsEncodedAlongsideTheNodeId() {
+		int shardCount = 3;
+		// 3 shards take 2 of the 6 node bits, leaving node ids 0..15
+		SnowflakeIdGenerator first = new SnowflakeIdGenerator(0, shardCount, clock::get);
+		SnowflakeIdGenerator last = new SnowflakeIdGenerator(15, shardCount, clock::get);
+
+		for (int shard = 0; shard < shardCount; shard++) {
+			long a = first.nextId(shard);
+			long b = last.nextId(shard);
+			assertThat(SnowflakeIdGenerator.shardOf(a, shardCount)).isEqualTo(shard);
+			assertThat(SnowflakeIdGenerator.shardOf(b, shardCount)).isEqualTo(shard);
+			assertThat(a).isNotEqualTo(b);
+		}
+		assertThatThrownBy(() -> new SnowflakeIdGenerator(16, shardCount, clock::get))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void idsStayBetweenTheSequenceRangeAndJavaScriptsSafeIntegers() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, SnowflakeIdGenerator.MAX_SHARDS, clock::get);
+		long lastMillisecond = SnowflakeIdGenerator.EPOCH.toEpochMilli() + (1L << 40) - 1;
+
+		long first = generator.nextId(0);
+		clock.set(lastMillisecond);
+		long last = generator.nextId(SnowflakeIdGenerator.MAX_SHARDS - 1);
+
+		assertThat(first).isGreaterThanOrEqualTo(SnowflakeIdGenerator.MIN_ID);
+		assertThat(last).isLessThanOrEqualTo(MAX_SAFE_INTEGER);
+		assertThat(SnowflakeIdGenerator.timestampOf(last).toEpochMilli()).isEqualTo(lastMillisecond);
+		assertThat(SnowflakeIdGenerator.shardOf(last, SnowflakeIdGenerator.MAX_SHARDS))
+				.isEqualTo(SnowflakeIdGenerator.MAX_SHARDS - 1);
+	}
+}
@@ -0,0 +1,64 @@
+package com.looyt.user.management.service.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.looyt.user.management.service.model.UserRole;
+import com.looyt.user.management.service.model.response.UserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written writer must produce exactly what Jackson's bean serializer produced before it.
+ */
+class UserJsonWriterTest {
+
+	// Spring Boot defaults: java.time support, ISO dates instead of timestamps
+	private final ObjectMapper reflective = JsonMapper.builder()
+			.findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	@Test
+	void matchesReflectiveSerialization() throws Exception {
+		List<UserResponse> users = List.of(
+				user(LocalDateTime.of(2024, 1, 1, 12, 0)),
+				user(LocalDateTime.of(2024, 1, 1, 12, 0, 5, 120_000_000)),
+				user(LocalDateTime.of(2024, 12, 31, 23, 59, 59, 123_456_000)),
+				user(LocalDateTime.of(999, 2, 3, 4, 5, 6, 1)),
+				user(LocalDateTime.of(12024, 1, 1, 0, 0)),
+				UserResponse.builder().id(7L).username("quote\"and\\slash é").build());
+
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		UserJsonWriter writer = new UserJsonWriter();
+		try (JsonGenerator generator = reflective.createGenerator(written)) {
+			generator.writeStartArray();
+			for (UserResponse user : users) {
+				writer.write(generator, user);
+			}
+			generator.writeEndArray();
+		}
+
+		assertThat(written.toString(StandardCharsets.UTF_8)).isEqualTo(reflective.writeValueAsString(users));
+	}
+
+	private static UserResponse user(LocalDateTime createdAt) {
+		return UserResponse.builder()
+				.id(1L)
+				.username("eva")
+				.email("eva.baker@example.com")
+				.phoneNumber("+358401234567")
+				.role(UserRole.ADMIN)
+				.createdAt(createdAt)
+				.updatedAt(createdAt.plusNanos(1_000))
+				.version(3L)
+				.build();
+	}
+}
@@ -0,0 +1,60 @@
+package com.looyt.user.management.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA bucket driven by an explicit clock: 10 tokens, refilled at 5 per second (one every 200ms).
+ */
+class TokenBucketTest {
+
+	private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+	private static final long TOKEN_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+	private final TokenBucket bucket = new TokenBucket(10, 5.0, START);
+
+	@Test
+	void admitsAFullBurstThenRejects() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(bucket.tryConsume(1, START)).isZero();
+		}
+
+		assertThat(bucket.tryConsume(1, START)).isEqualTo(TOKEN_NANOS);
+	}
+
+	@Test
+	void refillsOneTokenPerInterval() {
+		assertThat(bucket.tryConsume(10, START)).isZero();
+
+		assertThat(bucket.tryConsume(1, START + TOKEN_NANOS - 1)).isEqualTo(1);
+		assertThat(bucket.tryConsume(1, START + TOKEN_NANOS)).isZero();
+		assertThat(bucket.tryConsume(1, START + TOKEN_NANOS)).isEqualTo(TOKEN_NANOS);
+	}
+
+	@Test
+	void idleTimeNeverBanksMoreThanCapacity() {
+		long later = START + TimeUnit.HOURS.toNanos(1);
+
+		assertThat(bucket.tryConsume(10, later)).isZero();
+		assertThat(bucket.tryConsume(1, later)).isEqualTo(TOKEN_NANOS);
+	}
+
+	@Test
+	void retryAfterCoversTheWholeCost() {
+		assertThat(bucket.tryConsume(8, START)).isZero();
+
+		// 2 tokens left, 5 needed: wait for 3 more
+		assertThat(bucket.tryConsume(5, START)).isEqualTo(3 * TOKEN_NANOS);
+		// A rejected call takes nothing
+		assertThat(bucket.tryConsume(2, START)).isZero();
+	}
+
+	@Test
+	void costAboveCapacityIsCappedSoItCanEventuallySucceed() {
+		assertThat(bucket.tryConsume(50, START)).isZero();
+		assertThat(bucket.tryConsume(1, START)).isEqualTo(TOKEN_NANOS);
+	}
+}
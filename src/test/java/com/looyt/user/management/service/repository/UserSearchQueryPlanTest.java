@@ -0,0 +1,234 @@
+package com.looyt.user.management.service.repository;
+
+import com.looyt.user.management.service.entity.User;
+import com.looyt.user.management.service.model.UserRole;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against a seeded PostgreSQL, executes searches built from {@link UserSpecifications}
+ * through Hibernate, and EXPLAINs the SQL and bind values Hibernate actually sent, to check that the
+ * search predicates are planned as index scans rather than sequential scans.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {"app.events.publisher.enabled=false", "app.email-filter.enabled=false",
+				"spring.jpa.show-sql=false"})
+class UserSearchQueryPlanTest {
+
+	private static final int LIMIT = 11;
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+	static JdbcTemplate jdbc;
+
+	// Users-table queries prepared through the application's data source, with their bind calls
+	static final List<RecordedQuery> recorded = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@BeforeAll
+	static void migrateAndSeed() {
+		Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.locations("classpath:db/migration")
+				.load()
+				.migrate();
+
+		jdbc = new JdbcTemplate(new DriverManagerDataSource(
+				postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+		jdbc.execute("""
+				INSERT INTO users (username, email, role, phone_number, created_at)
+				SELECT 'user' || g, 'user' || g || '@example.com',
+				       CASE WHEN g % 1000 = 0 THEN 'ADMIN' ELSE 'USER' END,
+				       '+35840' || g, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute'
+				FROM generate_series(1, 200000) g
+				""");
+		jdbc.execute("ANALYZE users");
+	}
+
+	@BeforeEach
+	void clearRecorded() {
+		recorded.clear();
+	}
+
+	@Test
+	void usernameSubstringUsesTrigramIndex() {
+		assertThat(planOf(UserSpecifications.fieldMatches("username", "er1234", false), Sort.by("id")))
+				.contains("idx_users_username_trgm")
+				.doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void emailPrefixUsesTrigramIndex() {
+		assertThat(planOf(UserSpecifications.fieldMatches("email", "user19999", true), Sort.by("id")))
+				.contains("idx_users_email_trgm")
+				.doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void roleFilterUsesRoleIdIndex() {
+		Specification<User> page = UserSpecifications.hasRole(UserRole.ADMIN)
+				.and(UserSpecifications.seekAfter("id", Sort.Direction.ASC, null, 50_000L));
+		assertThat(planOf(page, Sort.by("id")))
+				.contains("idx_users_role_id")
+				.doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void createdAtRangeUsesCreatedAtIdIndex() {
+		Specification<User> range = UserSpecifications.createdFrom(LocalDateTime.of(2024, 2, 1, 0, 0))
+				.and(UserSpecifications.createdBefore(LocalDateTime.of(2024, 2, 2, 0, 0)));
+		assertThat(planOf(range, Sort.by("createdAt").and(Sort.by("id"))))
+				.contains("idx_users_created_at_id")
+				.doesNotContain("Seq Scan");
+	}
+
+	// Same repository call as a search page, then EXPLAIN of exactly what it sent
+	private String planOf(Specification<User> filter, Sort sort) {
+		transactionTemplate.executeWithoutResult(status -> userRepository.findResponses(filter, sort, LIMIT));
+		List<RecordedQuery> sent = recorded.stream()
+				.filter(query -> query.thread() == Thread.currentThread())
+				.toList();
+		assertThat(sent).as("queries sent for the search").hasSize(1);
+		RecordedQuery query = sent.get(0);
+		return String.join("\n", jdbc.query("EXPLAIN " + query.sql(), query::bind,
+				(row, rowNumber) -> row.getString(1)));
+	}
+
+	record RecordedQuery(Thread thread, String sql, List<Bind> binds) {
+
+		void bind(PreparedStatement statement) throws SQLException {
+			for (Bind bind : binds) {
+				try {
+					bind.method().invoke(statement, bind.args());
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				} catch (InvocationTargetException e) {
+					throw e.getCause() instanceof SQLException cause ? cause : new IllegalStateException(e.getCause());
+				}
+			}
+		}
+	}
+
+	record Bind(Method method, Object[] args) {
+	}
+
+	@TestConfiguration
+	static class RecordingDataSourceConfig {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+							? new RecordingDataSource(dataSource)
+							: bean;
+				}
+			};
+		}
+	}
+
+	static class RecordingDataSource extends DelegatingDataSource {
+
+		RecordingDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return recording(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return recording(super.getConnection(username, password));
+		}
+
+		private static Connection recording(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+						Object result = invoke(connection, method, args);
+						if (method.getName().equals("prepareStatement") && isUsersSelect((String) args[0])) {
+							return recording((PreparedStatement) result, (String) args[0]);
+						}
+						return result;
+					});
+		}
+
+		private static PreparedStatement recording(PreparedStatement statement, String sql) {
+			List<Bind> binds = new ArrayList<>();
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+						if (method.getName().startsWith("set") && args != null && args.length >= 2
+								&& args[0] instanceof Integer) {
+							binds.add(new Bind(method, args.clone()));
+						} else if (method.getName().equals("clearParameters")) {
+							binds.clear();
+						} else if (method.getName().equals("executeQuery")) {
+							recorded.add(new RecordedQuery(Thread.currentThread(), sql, List.copyOf(binds)));
+						}
+						return invoke(statement, method, args);
+					});
+		}
+
+		private static boolean isUsersSelect(String sql) {
+			String normalized = sql.toLowerCase(Locale.ROOT);
+			return normalized.startsWith("select") && normalized.contains(" from users ");
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
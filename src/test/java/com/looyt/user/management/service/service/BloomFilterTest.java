@@ -0,0 +1,57 @@
+package com.looyt.user.management.service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sized for 10,000 emails at a 1% false-positive rate.
+ */
+class BloomFilterTest {
+
+	private static final int CAPACITY = 10_000;
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final BloomFilter filter = new BloomFilter(CAPACITY, FALSE_POSITIVE_RATE);
+
+	@Test
+	void everyAddedEmailIsReported() {
+		for (int i = 0; i < CAPACITY; i++) {
+			filter.add(email(i));
+		}
+
+		for (int i = 0; i < CAPACITY; i++) {
+			assertThat(filter.mightContain(email(i))).as(email(i)).isTrue();
+		}
+		assertThat(filter.added()).isBetween((long) CAPACITY * 99 / 100, (long) CAPACITY);
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTargetAtCapacity() {
+		for (int i = 0; i < CAPACITY; i++) {
+			filter.add(email(i));
+		}
+
+		int absent = 100_000;
+		int falsePositives = 0;
+		for (int i = CAPACITY; i < CAPACITY + absent; i++) {
+			if (filter.mightContain(email(i))) {
+				falsePositives++;
+			}
+		}
+
+		double observed = (double) falsePositives / absent;
+		assertThat(observed).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 2);
+		assertThat(filter.expectedFalsePositiveRate()).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 2);
+	}
+
+	@Test
+	void emptyFilterRulesEverythingOut() {
+		assertThat(filter.mightContain(email(1))).isFalse();
+		assertThat(filter.expectedFalsePositiveRate()).isZero();
+	}
+
+	private static String email(int i) {
+		return "user" + i + "@example.com";
+	}
+}
@@ -0,0 +1,81 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.datasource.UserShards;
+import com.looyt.user.management.service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Build, sync and rebuild of the filter against a mocked repository on a single shard.
+ */
+class UserEmailFilterTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserShards userShards = new UserShards(1, mock(PlatformTransactionManager.class));
+	private final UserEmailFilter emailFilter = new UserEmailFilter(userRepository, userShards,
+			mock(UserCountEstimate.class), new SimpleMeterRegistry(), true, 0.01, 1_000, Duration.ofSeconds(5));
+
+	@Test
+	void reportsEveryEmailAsPossibleUntilBuilt() {
+		assertThat(emailFilter.mightExist("anyone@example.com")).isTrue();
+	}
+
+	@Test
+	void buildsFromEveryStoredEmail() {
+		when(userRepository.streamAllEmails()).thenAnswer(invocation -> Stream.of("eva@example.com", "leo@example.com"));
+
+		emailFilter.rebuild();
+
+		assertThat(emailFilter.mightExist("eva@example.com")).isTrue();
+		assertThat(emailFilter.mightExist("leo@example.com")).isTrue();
+		assertThat(emailFilter.mightExist("nobody@example.com")).isFalse();
+	}
+
+	@Test
+	void syncAddsEmailsWrittenByOtherInstances() {
+		when(userRepository.streamAllEmails()).thenAnswer(invocation -> Stream.of("eva@example.com"));
+		when(userRepository.findEmailsUpdatedSince(any())).thenReturn(List.of("elsewhere@example.com"));
+		emailFilter.rebuild();
+		assertThat(emailFilter.mightExist("elsewhere@example.com")).isFalse();
+
+		emailFilter.sync();
+
+		assertThat(emailFilter.mightExist("elsewhere@example.com")).isTrue();
+	}
+
+	@Test
+	void keepsWritesMadeWhileRebuilding() {
+		when(userRepository.streamAllEmails()).thenAnswer(invocation -> {
+			emailFilter.add("during@example.com");
+			return Stream.of("eva@example.com");
+		});
+
+		emailFilter.rebuild();
+
+		assertThat(emailFilter.mightExist("during@example.com")).isTrue();
+	}
+
+	@Test
+	void rebuildsOnceDeletesPassTheStaleRatio() {
+		when(userRepository.streamAllEmails()).thenAnswer(invocation -> Stream.of(
+				"a@example.com", "b@example.com", "c@example.com", "d@example.com", "e@example.com"));
+		emailFilter.rebuild();
+
+		emailFilter.remove("a@example.com");
+		emailFilter.sync();
+
+		verify(userRepository, times(2)).streamAllEmails();
+	}
+}
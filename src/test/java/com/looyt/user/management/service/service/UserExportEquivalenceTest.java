@@ -0,0 +1,108 @@
+package com.looyt.user.management.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.looyt.user.management.service.model.ExportFormat;
+import com.looyt.user.management.service.model.response.UserResponse;
+import com.looyt.user.management.service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The NDJSON export written from JDBC rows must match, byte for byte, what the previous path wrote by
+ * streaming {@link UserResponse} projections through Jackson's reflective serializer.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {"app.events.publisher.enabled=false", "spring.jpa.show-sql=false"})
+class UserExportEquivalenceTest {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+	// Spring Boot defaults without the UserResponse serializer, as the previous path serialized
+	private final ObjectMapper reflective = JsonMapper.builder()
+			.findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	@Autowired
+	UserService userService;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@Test
+	void jdbcRowsMatchTheProjectionPath() throws IOException {
+		jdbc.update("""
+				INSERT INTO users (username, email, role, phone_number, created_at, updated_at)
+				VALUES ('eva', 'eva.baker@example.com', 'ADMIN', '+358401234567',
+				        TIMESTAMP '2024-01-01 12:00:00', TIMESTAMP '2024-01-01 12:00:00.5'),
+				       ('jürgen ñandú', 'jurgen@example.com', 'USER', '+358401234568',
+				        TIMESTAMP '2024-02-29 23:59:59.123456', TIMESTAMP '2024-03-01 00:00:00'),
+				       ('東京 🚀', 'tokyo@example.com', 'USER', '+358401234569',
+				        TIMESTAMP '2024-03-01 00:00:00.000001', TIMESTAMP '2024-03-02 08:30:00'),
+				       ('quote"and\\slash', 'quote@example.com', 'USER', '+358401234570',
+				        TIMESTAMP '2024-04-01 10:00:00.12', TIMESTAMP '2024-04-01 10:00:00.12'),
+				       ('gone', 'gone@example.com', 'USER', '+358401234571',
+				        TIMESTAMP '2024-05-01 10:00:00', TIMESTAMP '2024-05-01 10:00:00')
+				""");
+		jdbc.update("UPDATE users SET deleted_at = now() WHERE email = 'gone@example.com'");
+
+		ByteArrayOutputStream exported = new ByteArrayOutputStream();
+		userService.exportUsers(ExportFormat.NDJSON, exported);
+
+		String written = exported.toString(StandardCharsets.UTF_8);
+		assertThat(written).isEqualTo(exportProjection());
+		assertThat(written.lines()).hasSize(4);
+		assertThat(written).contains("jürgen ñandú", "東京 🚀").doesNotContain("gone@example.com");
+	}
+
+	// The export before it read JDBC rows: projections written by a SequenceWriter
+	private String exportProjection() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (SequenceWriter writer = reflective.writer().withRootValueSeparator("\n").writeValues(out)) {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<UserResponse> users = userRepository.streamAllResponsesOrderById()) {
+					for (UserResponse user : (Iterable<UserResponse>) users::iterator) {
+						writer.write(user);
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
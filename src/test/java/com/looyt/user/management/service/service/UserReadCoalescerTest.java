@@ -0,0 +1,107 @@
+package com.looyt.user.management.service.service;
+
+import com.looyt.user.management.service.exception.UserNotFoundException;
+import com.looyt.user.management.service.model.response.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Thundering herd on one user id: every request arrives while the first one's query is still
+ * running, and the database sees a single query.
+ */
+class UserReadCoalescerTest {
+
+	private static final int HERD = 200;
+	private static final long ID = 42L;
+
+	private final UserService userService = mock(UserService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UserReadCoalescer coalescer = new UserReadCoalescer(userService, meterRegistry);
+
+	@Test
+	void herdForOneIdSharesOneQuery() throws Exception {
+		UserResponse user = UserResponse.builder().id(ID).username("popular").build();
+		AtomicInteger queries = new AtomicInteger();
+		CountDownLatch queryRunning = new CountDownLatch(1);
+		CountDownLatch releaseQuery = new CountDownLatch(1);
+		when(userService.getUserById(ID)).thenAnswer(invocation -> {
+			queries.incrementAndGet();
+			queryRunning.countDown();
+			releaseQuery.await();
+			return user;
+		});
+
+		List<Future<CompletableFuture<UserResponse>>> calls = new ArrayList<>();
+		CountDownLatch followersReturned = new CountDownLatch(HERD - 1);
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			calls.add(clients.submit(() -> coalescer.getUserById(ID)));
+			assertThat(queryRunning.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 1; i < HERD; i++) {
+				calls.add(clients.submit(() -> {
+					CompletableFuture<UserResponse> result = coalescer.getUserById(ID);
+					followersReturned.countDown();
+					return result;
+				}));
+			}
+
+			// Followers got their futures back without waiting for the query
+			assertThat(followersReturned.await(5, TimeUnit.SECONDS)).isTrue();
+			for (Future<CompletableFuture<UserResponse>> call : calls.subList(1, HERD)) {
+				assertThat(call.get().isDone()).isFalse();
+			}
+
+			releaseQuery.countDown();
+			for (Future<CompletableFuture<UserResponse>> call : calls) {
+				assertThat(call.get().get(5, TimeUnit.SECONDS)).isSameAs(user);
+			}
+		}
+
+		assertThat(queries).hasValue(1);
+		assertThat(meterRegistry.get("users.single_flight.joined").tag("operation", "getUserById").counter().count())
+				.isEqualTo(HERD - 1);
+
+		// Nothing is cached once the query has finished
+		coalescer.getUserById(ID).get();
+		assertThat(queries).hasValue(2);
+	}
+
+	@Test
+	void followersSeeTheLeadersFailure() throws Exception {
+		CountDownLatch queryRunning = new CountDownLatch(1);
+		CountDownLatch releaseQuery = new CountDownLatch(1);
+		when(userService.getUserById(ID)).thenAnswer(invocation -> {
+			queryRunning.countDown();
+			releaseQuery.await();
+			throw new UserNotFoundException(ID);
+		});
+
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<CompletableFuture<UserResponse>> leader = clients.submit(() -> coalescer.getUserById(ID));
+			assertThat(queryRunning.await(5, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<UserResponse> follower = coalescer.getUserById(ID);
+			releaseQuery.countDown();
+
+			assertThatThrownBy(follower::join)
+					.isInstanceOf(CompletionException.class)
+					.hasCauseInstanceOf(UserNotFoundException.class);
+			assertThatThrownBy(() -> leader.get().join())
+					.hasCauseInstanceOf(UserNotFoundException.class);
+		}
+	}
+}